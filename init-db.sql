@@ -8,6 +8,7 @@ CREATE TABLE IF NOT EXISTS todos (
     start_date DATE,
     end_date DATE,
     priority VARCHAR(20) CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    priority_rank INTEGER DEFAULT 5,
     comments TEXT,
     collaborators VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -20,6 +21,60 @@ CREATE INDEX IF NOT EXISTS idx_todos_priority ON todos(priority);
 CREATE INDEX IF NOT EXISTS idx_todos_completed ON todos(completed);
 CREATE INDEX IF NOT EXISTS idx_todos_end_date ON todos(end_date);
 CREATE INDEX IF NOT EXISTS idx_todos_created_at ON todos(created_at);
+CREATE INDEX IF NOT EXISTS idx_todos_updated_at ON todos(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_todos_completed_priority_rank ON todos(completed, priority_rank, end_date);
+CREATE INDEX IF NOT EXISTS idx_todos_priority_rank_end_date ON todos(priority_rank, end_date);
+
+-- Normalized collaborator names, one row per todo and person
+CREATE TABLE IF NOT EXISTS todo_collaborators (
+    todo_id BIGINT NOT NULL REFERENCES todos(id) ON DELETE CASCADE,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (todo_id, name)
+);
+
+-- varchar_pattern_ops lets prefix LIKE queries use the index regardless of collation
+CREATE INDEX IF NOT EXISTS idx_todo_collaborators_name ON todo_collaborators(name varchar_pattern_ops, todo_id);
+
+-- Deleted todo ids, kept for incremental sync clients until the retention purge
+CREATE TABLE IF NOT EXISTS todo_tombstones (
+    todo_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_deleted_at ON todo_tombstones(deleted_at, todo_id);
+
+-- Collection version behind the API ETags, bumped by every transaction that changes todos
+CREATE TABLE IF NOT EXISTS todo_collection_version (
+    id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO todo_collection_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Completed todos moved out of the live table by the archive job; same ids and columns
+CREATE TABLE IF NOT EXISTS todos_archive (
+    id BIGINT PRIMARY KEY,
+    description TEXT,
+    start_date DATE,
+    end_date DATE,
+    priority VARCHAR(20),
+    priority_rank INTEGER,
+    comments TEXT,
+    collaborators VARCHAR(500),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    completed BOOLEAN,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_todos_archive_archived_at ON todos_archive(archived_at, id);
+
+-- Leases that keep scheduled jobs (the archive job) to one instance at a time
+CREATE TABLE IF NOT EXISTS job_locks (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(100)
+);
 
 -- Create a function to update the updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
@@ -0,0 +1,131 @@
+package com.example.todoapp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline and fails
+ * the build when any benchmark regresses by more than the threshold, either
+ * in its primary score or in bytes allocated per operation.
+ *
+ * Arguments: result file, baseline file, threshold percent, update flag.
+ * With the update flag set the results replace the baseline instead.
+ */
+public final class BenchmarkBaseline {
+    
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    
+    private BenchmarkBaseline() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            throw new IllegalArgumentException("Usage: BenchmarkBaseline <result> <baseline> <thresholdPercent> <update>");
+        }
+        Path result = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100.0;
+        boolean update = Boolean.parseBoolean(args[3]);
+        
+        if (!Files.exists(result)) {
+            throw new IllegalStateException("No benchmark results at " + result);
+        }
+        if (update) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Benchmark baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No benchmark baseline at " + baseline +
+                               "; record one with -Djmh.updateBaseline=true");
+            return;
+        }
+        
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(mapper.readTree(result.toFile()));
+        Map<String, JsonNode> previous = index(mapper.readTree(baseline.toFile()));
+        
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = previous.get(entry.getKey());
+            if (before == null) {
+                System.out.println("NEW   " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            
+            // Throughput regresses when it drops; every other mode when the time grows
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            compare(entry.getKey(), unit, oldScore, newScore, higherIsBetter, threshold, regressions);
+            
+            Double oldAlloc = allocation(before);
+            Double newAlloc = allocation(after);
+            if (oldAlloc != null && newAlloc != null) {
+                compare(entry.getKey() + " [alloc]", "B/op", oldAlloc, newAlloc, false, threshold, regressions);
+            }
+        }
+        
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(regressions.size() + " benchmark regression(s) over " +
+                                            args[2] + "%:\n  " + String.join("\n  ", regressions));
+        }
+        System.out.println("No benchmark regressions over " + args[2] + "%");
+    }
+    
+    private static void compare(String name, String unit, double oldValue, double newValue,
+                                boolean higherIsBetter, double threshold, List<String> regressions) {
+        if (oldValue == 0) {
+            return;
+        }
+        double change = (newValue - oldValue) / oldValue;
+        boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+        String line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)", name, oldValue, newValue, unit, change * 100);
+        System.out.println((regressed ? "WORSE " : "OK    ") + line);
+        if (regressed) {
+            regressions.add(line);
+        }
+    }
+    
+    // Key each run by benchmark method plus its @Param values
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+    
+    // JMH prefixes profiler metrics with a middle dot ("·gc.alloc.rate.norm")
+    private static Double allocation(JsonNode run) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            String name = metric.getKey().startsWith("·") ? metric.getKey().substring(1) : metric.getKey();
+            if (ALLOC_METRIC.equals(name)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+}
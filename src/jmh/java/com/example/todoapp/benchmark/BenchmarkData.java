@@ -0,0 +1,73 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.entity.Todo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic todos shared by the benchmarks.
+ */
+final class BenchmarkData {
+    
+    static final String[] WORDS = {
+        "review", "deploy", "database", "security", "audit", "documentation", "release",
+        "performance", "migration", "customer", "invoice", "dashboard", "backup", "training"
+    };
+    
+    static final String[] PEOPLE = {
+        "Alice Johnson", "Bob Wilson", "Carol Brown", "David Lee", "Eva Martinez",
+        "Frank Taylor", "Hal Jordan", "Lisa Davis", "Mike Brown", "Sarah Wilson"
+    };
+    
+    private BenchmarkData() {
+    }
+    
+    static String sentence(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    static String collaborators(SplittableRandom random) {
+        return PEOPLE[random.nextInt(PEOPLE.length)] + ", " + PEOPLE[random.nextInt(PEOPLE.length)];
+    }
+    
+    static Todo.Priority priority(SplittableRandom random) {
+        Todo.Priority[] priorities = Todo.Priority.values();
+        return priorities[random.nextInt(priorities.length)];
+    }
+    
+    // End dates spread around today so overdue, due-today and due-soon all occur
+    static LocalDate endDate(SplittableRandom random, LocalDate today) {
+        return today.plusDays(random.nextInt(-30, 31));
+    }
+    
+    static List<Todo> todos(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<Todo> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Todo todo = new Todo(sentence(random, 6));
+            todo.setId((long) i + 1);
+            LocalDate end = endDate(random, today);
+            todo.setStartDate(end.minusDays(7));
+            todo.setEndDate(end);
+            todo.setPriority(priority(random));
+            todo.setComments(sentence(random, 12));
+            todo.setCollaborators(collaborators(random));
+            todo.setCompleted(random.nextInt(10) < 3);
+            todo.setCreatedAt(LocalDateTime.now().minusDays(random.nextInt(365)));
+            todos.add(todo);
+        }
+        return todos;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.TodoAppApplication;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.search.TodoDueDateIndex;
+import com.example.todoapp.search.TodoSearchIndex;
+import com.example.todoapp.service.TodoServiceModern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query paths against a seeded in-memory H2 database: the dynamic
+ * specification behind GET /api/v1/todos and each repository finder.
+ * Runs at 10k, 100k and 1M rows to show how each path scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TodoQueryBenchmark {
+    
+    private static final int SEED_BATCH_SIZE = 5000;
+    
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private TodoServiceModern todoService;
+    private TodoRepository todoRepository;
+    private Pageable firstPage;
+    private LocalDate today;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoAppApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=benchmark",
+                 "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                 "--spring.datasource.username=sa",
+                 "--spring.datasource.password=",
+                 "--spring.jpa.hibernate.ddl-auto=create",
+                 "--spring.jpa.show-sql=false",
+                 "--spring.sql.init.mode=never",
+                 "--app.collaborators.backfill.enabled=false",
+                 "--logging.level.root=WARN",
+                 "--logging.level.com.example.todoapp=WARN",
+                 "--logging.level.org.hibernate.SQL=WARN",
+                 "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                 "--logging.level.org.springframework.web=WARN");
+        todoService = context.getBean(TodoServiceModern.class);
+        todoRepository = context.getBean(TodoRepository.class);
+        firstPage = PageRequest.of(0, 20);
+        today = LocalDate.now();
+        
+        seed(context.getBean(JdbcTemplate.class));
+        // Startup indexed an empty table; index the seeded rows before measuring
+        context.getBean(TodoSearchIndex.class).rebuild();
+        context.getBean(TodoDueDateIndex.class).rebuild();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    // Plain JDBC batches with explicit ids keep seeding 1M rows to seconds
+    private void seed(JdbcTemplate jdbc) {
+        SplittableRandom random = new SplittableRandom(42L);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> todos = new ArrayList<>(SEED_BATCH_SIZE);
+        List<Object[]> collaborators = new ArrayList<>(SEED_BATCH_SIZE * 2);
+        
+        for (long id = 1; id <= rows; id++) {
+            LocalDate end = BenchmarkData.endDate(random, today);
+            String names = BenchmarkData.collaborators(random);
+            Todo.Priority priority = BenchmarkData.priority(random);
+            Timestamp created = Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600)));
+            todos.add(new Object[] {
+                id, BenchmarkData.sentence(random, 6), Date.valueOf(end.minusDays(7)), Date.valueOf(end),
+                priority.name(), Todo.priorityRank(priority), BenchmarkData.sentence(random, 12), names,
+                created, created, random.nextInt(10) < 3
+            });
+            for (String name : Todo.parseCollaborators(names)) {
+                collaborators.add(new Object[] {id, name});
+            }
+            
+            if (todos.size() == SEED_BATCH_SIZE || id == rows) {
+                jdbc.batchUpdate("INSERT INTO todos (id, description, start_date, end_date, priority, priority_rank, comments, " +
+                                 "collaborators, created_at, updated_at, completed) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                                 todos);
+                jdbc.batchUpdate("INSERT INTO todo_collaborators (todo_id, name) VALUES (?, ?)", collaborators);
+                todos.clear();
+                collaborators.clear();
+            }
+        }
+    }
+    
+    @Benchmark
+    public Page<Todo> listUnfiltered() {
+        return todoService.getAllTodos(null, null, firstPage);
+    }
+    
+    @Benchmark
+    public Page<Todo> listFilteredPending() {
+        return todoService.getAllTodos(null, "pending", firstPage);
+    }
+    
+    @Benchmark
+    public Page<Todo> listFilteredOverdue() {
+        return todoService.getAllTodos(null, "overdue", firstPage);
+    }
+    
+    @Benchmark
+    public Page<Todo> searchIndexed() {
+        return todoService.getAllTodos("database migration", null, firstPage);
+    }
+    
+    @Benchmark
+    public Page<Todo> searchSortedWithFilter() {
+        return todoService.getAllTodos("security", "pending", PageRequest.of(0, 20, Sort.by("endDate")));
+    }
+    
+    @Benchmark
+    public Page<Todo> listPendingByPriority() {
+        return todoService.getAllTodos(null, "pending", PageRequest.of(0, 20, Sort.by("priority", "endDate")));
+    }
+    
+    @Benchmark
+    public List<Todo> findByPriority() {
+        return todoRepository.findByPriority(Todo.Priority.URGENT);
+    }
+    
+    @Benchmark
+    public List<Todo> findByDateRange() {
+        return todoRepository.findByDateRange(today, today.plusDays(3));
+    }
+    
+    @Benchmark
+    public List<Todo> findOverdueTodos() {
+        return todoRepository.findOverdueTodos(today);
+    }
+    
+    @Benchmark
+    public List<Todo> findTodosDueToday() {
+        return todoRepository.findTodosDueOn(today);
+    }
+    
+    @Benchmark
+    public List<Todo> overdueFromIndex() {
+        return todoService.getOverdueTodos(today);
+    }
+    
+    @Benchmark
+    public List<Todo> dueTodayFromIndex() {
+        return todoService.getTodosDueToday(today);
+    }
+    
+    @Benchmark
+    public List<Todo> findByDescriptionContaining() {
+        return todoRepository.findByDescriptionContainingIgnoreCase("invoice");
+    }
+    
+    @Benchmark
+    public List<Todo> findByCollaboratorName() {
+        return todoRepository.findByCollaboratorName("hal jordan");
+    }
+    
+    @Benchmark
+    public List<Todo> findByCollaboratorPrefix() {
+        return todoRepository.findByCollaboratorNameLike("hal%");
+    }
+    
+    @Benchmark
+    public List<Todo> findAllOrderedByPriorityAndDate() {
+        return todoRepository.findAllOrderedByPriorityAndDate();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.entity.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of TodoResponse.from, including the isOverdue/isDueToday/isDueSoon
+ * flags, for a single todo and for a list page. mapPageSharedToday reads the
+ * clock once per page, as the v1 controller does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoResponseMappingBenchmark {
+    
+    @Param({"20", "100"})
+    public int pageSize;
+    
+    private Todo single;
+    private List<Todo> page;
+    
+    @Setup
+    public void setUp() {
+        page = BenchmarkData.todos(pageSize, 42L);
+        single = page.get(0);
+    }
+    
+    @Benchmark
+    public TodoResponse mapSingle() {
+        return TodoResponse.from(single);
+    }
+    
+    @Benchmark
+    public List<TodoResponse> mapPage() {
+        List<TodoResponse> responses = new ArrayList<>(page.size());
+        for (Todo todo : page) {
+            responses.add(TodoResponse.from(todo));
+        }
+        return responses;
+    }
+    
+    @Benchmark
+    public List<TodoResponse> mapPageSharedToday() {
+        LocalDate today = LocalDate.now();
+        List<TodoResponse> responses = new ArrayList<>(page.size());
+        for (Todo todo : page) {
+            responses.add(TodoResponse.from(todo, today));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints and stores a load test's per-endpoint results, and compares them
+ * with a previous run. Like the JMH baseline check, a change beyond the
+ * threshold percent fails the build: p50 or p99 latency growing, throughput
+ * falling, or an endpoint starting to return errors.
+ */
+final class LatencyReport {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final double rate;
+    private final int todos;
+    private final Map<String, OpenLoopDriver.Result> results;
+    
+    LatencyReport(double rate, int todos, Map<String, OpenLoopDriver.Result> results) {
+        this.rate = rate;
+        this.todos = todos;
+        this.results = results;
+    }
+    
+    void print(PrintStream out) {
+        out.printf("%-18s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                   "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, OpenLoopDriver.Result> entry : results.entrySet()) {
+            OpenLoopDriver.Result result = entry.getValue();
+            out.printf("%-18s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                       entry.getKey(), result.count(), result.errors.sum(), result.dropped.sum(), result.throughput(),
+                       result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                       result.percentileMillis(99.9), result.maxMillis());
+        }
+    }
+    
+    void write(Path file) throws IOException {
+        writeJson(file);
+        System.out.println("Load test results written to " + file);
+    }
+    
+    void compare(Path baseline, double thresholdPercent, boolean update) throws IOException {
+        if (update) {
+            writeJson(baseline);
+            System.out.println("Load test baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No load test baseline at " + baseline + "; record one with -Dloadtest.updateBaseline=true");
+            return;
+        }
+        
+        JsonNode previous = MAPPER.readTree(baseline.toFile());
+        if (previous.path("rate").asDouble() != rate || previous.path("todos").asInt() != todos) {
+            System.out.printf("Baseline ran at %.0f req/s over %d todos, this run at %.0f req/s over %d; "
+                              + "numbers are not comparable%n",
+                              previous.path("rate").asDouble(), previous.path("todos").asInt(), rate, todos);
+        }
+        
+        double threshold = thresholdPercent / 100.0;
+        JsonNode current = toJson().path("endpoints");
+        List<String> regressions = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> endpoints = current.fields();
+        while (endpoints.hasNext()) {
+            Map.Entry<String, JsonNode> entry = endpoints.next();
+            JsonNode before = previous.path("endpoints").path(entry.getKey());
+            if (before.isMissingNode()) {
+                System.out.println("NEW   " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            compare(entry.getKey() + " p50", "ms", before.path("p50Ms").asDouble(), after.path("p50Ms").asDouble(),
+                    false, threshold, regressions);
+            compare(entry.getKey() + " p99", "ms", before.path("p99Ms").asDouble(), after.path("p99Ms").asDouble(),
+                    false, threshold, regressions);
+            compare(entry.getKey() + " throughput", "req/s", before.path("throughput").asDouble(),
+                    after.path("throughput").asDouble(), true, threshold, regressions);
+            long errorsBefore = before.path("errors").asLong() + before.path("dropped").asLong();
+            long errorsAfter = after.path("errors").asLong() + after.path("dropped").asLong();
+            if (errorsBefore == 0 && errorsAfter > 0) {
+                String line = entry.getKey() + ": " + errorsAfter + " errors or dropped requests, none before";
+                System.out.println("WORSE " + line);
+                regressions.add(line);
+            }
+        }
+        
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(regressions.size() + " load test regression(s) over "
+                                            + thresholdPercent + "%:\n  " + String.join("\n  ", regressions));
+        }
+        System.out.println("No load test regressions over " + thresholdPercent + "%");
+    }
+    
+    private ObjectNode toJson() {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("rate", rate);
+        root.put("todos", todos);
+        ObjectNode endpoints = root.putObject("endpoints");
+        for (Map.Entry<String, OpenLoopDriver.Result> entry : results.entrySet()) {
+            OpenLoopDriver.Result result = entry.getValue();
+            ObjectNode node = endpoints.putObject(entry.getKey());
+            node.put("requests", result.count());
+            node.put("errors", result.errors.sum());
+            node.put("dropped", result.dropped.sum());
+            node.put("throughput", result.throughput());
+            node.put("p50Ms", result.percentileMillis(50));
+            node.put("p90Ms", result.percentileMillis(90));
+            node.put("p99Ms", result.percentileMillis(99));
+            node.put("p999Ms", result.percentileMillis(99.9));
+            node.put("maxMs", result.maxMillis());
+        }
+        return root;
+    }
+    
+    private void writeJson(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toJson());
+    }
+    
+    private static void compare(String name, String unit, double oldValue, double newValue,
+                                boolean higherIsBetter, double threshold, List<String> regressions) {
+        if (oldValue == 0) {
+            return;
+        }
+        double change = (newValue - oldValue) / oldValue;
+        boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+        String line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)", name, oldValue, newValue, unit, change * 100);
+        System.out.println((regressed ? "WORSE " : "OK    ") + line);
+        if (regressed) {
+            regressions.add(line);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.todoapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the todos a load test runs against, through {@code POST /api/v1/todos/batch}
+ * so that the search index, due-date index and statistics see them exactly as
+ * they would see real traffic. The data is deterministic for a given seed.
+ */
+final class LoadData {
+    
+    static final String[] WORDS = {
+        "review", "deploy", "database", "security", "audit", "documentation", "release",
+        "performance", "migration", "customer", "invoice", "dashboard", "backup", "training"
+    };
+    
+    static final String[] PEOPLE = {
+        "Alice Johnson", "Bob Wilson", "Carol Brown", "David Lee", "Eva Martinez",
+        "Frank Taylor", "Hal Jordan", "Lisa Davis", "Mike Brown", "Sarah Wilson"
+    };
+    
+    static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private LoadData() {
+    }
+    
+    // Returns the ids of the created todos
+    static List<Long> seed(HttpClient client, URI base, int count, long seed) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<Long> ids = new ArrayList<>(count);
+        for (int offset = 0; offset < count; offset += BATCH_SIZE) {
+            ObjectNode batch = MAPPER.createObjectNode();
+            ArrayNode operations = batch.putArray("operations");
+            for (int i = offset; i < Math.min(count, offset + BATCH_SIZE); i++) {
+                ObjectNode operation = operations.addObject();
+                operation.put("type", "CREATE");
+                operation.set("create", todo(random, today));
+            }
+            
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(base.resolve("/api/v1/todos/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(batch)))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : MAPPER.readTree(response.body()).path("results")) {
+                if (result.hasNonNull("id")) {
+                    ids.add(result.get("id").asLong());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Seeding created no todos; set --todos to at least 1");
+        }
+        return ids;
+    }
+    
+    static ObjectNode todo(SplittableRandom random, LocalDate today) {
+        // End dates spread around today so overdue, due-today and due-soon all occur
+        LocalDate end = today.plusDays(random.nextInt(-30, 31));
+        ObjectNode todo = MAPPER.createObjectNode();
+        todo.put("description", sentence(random, 6));
+        todo.put("startDate", end.minusDays(7).toString());
+        todo.put("endDate", end.toString());
+        todo.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        todo.put("comments", sentence(random, 12));
+        todo.put("collaborators", PEOPLE[random.nextInt(PEOPLE.length)] + ", " + PEOPLE[random.nextInt(PEOPLE.length)]);
+        return todo;
+    }
+    
+    static String sentence(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
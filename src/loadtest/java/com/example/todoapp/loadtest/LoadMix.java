@@ -0,0 +1,141 @@
+package com.example.todoapp.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+
+/**
+ * The weighted set of requests a load test sends, parsed from
+ * {@code name:weight,...}. Requests that address a todo pick one of the seeded
+ * ids at random. Updates only change descriptions and completion, and
+ * creates are a small share of the default mix, so the data set keeps
+ * roughly its size and shape for the whole run.
+ */
+final class LoadMix {
+    
+    static final String DEFAULT = "v1-get:25,v1-list:15,v1-search:10,v1-due-soon:5,v1-stats:5,v1-create:5,"
+        + "legacy-get:20,legacy-update:5,legacy-toggle:5,legacy-priority:5";
+    
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int totalWeight;
+    
+    private LoadMix(List<Endpoint> endpoints) {
+        this.endpoints.addAll(endpoints);
+        this.totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+    }
+    
+    static LoadMix parse(String mix, List<Long> ids) {
+        Map<String, BiFunction<URI, SplittableRandom, HttpRequest.Builder>> catalogue = catalogue(ids);
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            BiFunction<URI, SplittableRandom, HttpRequest.Builder> request = catalogue.get(parts[0]);
+            if (request == null || parts.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + entry + "'; use name:weight with one of "
+                                                   + catalogue.keySet());
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                endpoints.add(new Endpoint(parts[0], weight, request));
+            }
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no endpoint with a positive weight: " + mix);
+        }
+        return new LoadMix(endpoints);
+    }
+    
+    private static Map<String, BiFunction<URI, SplittableRandom, HttpRequest.Builder>> catalogue(List<Long> ids) {
+        Map<String, BiFunction<URI, SplittableRandom, HttpRequest.Builder>> catalogue = new LinkedHashMap<>();
+        catalogue.put("legacy-list", (base, random) -> get(base, "/api/todos"));
+        catalogue.put("legacy-get", (base, random) -> get(base, "/api/todos/" + id(ids, random)));
+        catalogue.put("legacy-priority", (base, random) ->
+            get(base, "/api/todos/priority/" + LoadData.PRIORITIES[random.nextInt(LoadData.PRIORITIES.length)]));
+        catalogue.put("legacy-update", (base, random) -> json(base, "/api/todos/" + id(ids, random))
+            .PUT(description(random)));
+        catalogue.put("legacy-toggle", (base, random) -> HttpRequest.newBuilder(base.resolve(
+            "/api/todos/" + id(ids, random) + "/toggle")).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+        catalogue.put("v1-get", (base, random) -> get(base, "/api/v1/todos/" + id(ids, random)));
+        catalogue.put("v1-list", (base, random) ->
+            get(base, "/api/v1/todos?page=" + random.nextInt(10) + "&size=20&sort=completed&sort=priority&sort=endDate"));
+        catalogue.put("v1-search", (base, random) ->
+            get(base, "/api/v1/todos?size=20&search=" + LoadData.WORDS[random.nextInt(LoadData.WORDS.length)]));
+        catalogue.put("v1-summary", (base, random) -> get(base, "/api/v1/todos?view=summary&size=100"));
+        catalogue.put("v1-due-soon", (base, random) -> get(base, "/api/v1/todos/due-soon?view=summary"));
+        catalogue.put("v1-stats", (base, random) -> get(base, "/api/v1/todos/stats"));
+        catalogue.put("v1-update", (base, random) -> json(base, "/api/v1/todos/" + id(ids, random))
+            .PUT(description(random)));
+        catalogue.put("v1-create", (base, random) -> json(base, "/api/v1/todos")
+            .POST(HttpRequest.BodyPublishers.ofString(LoadData.todo(random, LocalDate.now()).toString())));
+        return catalogue;
+    }
+    
+    Endpoint pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights changed during pick");
+    }
+    
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Endpoint endpoint : endpoints) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(endpoint.name).append(' ').append(endpoint.weight * 100 / totalWeight).append('%');
+        }
+        return text.toString();
+    }
+    
+    private static long id(List<Long> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    private static HttpRequest.Builder get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET();
+    }
+    
+    private static HttpRequest.Builder json(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).header("Content-Type", "application/json");
+    }
+    
+    private static HttpRequest.BodyPublisher description(SplittableRandom random) {
+        return HttpRequest.BodyPublishers.ofString("{\"description\":\"" + LoadData.sentence(random, 6) + "\"}");
+    }
+    
+    static final class Endpoint {
+        
+        final String name;
+        final int weight;
+        private final BiFunction<URI, SplittableRandom, HttpRequest.Builder> request;
+        
+        Endpoint(String name, int weight, BiFunction<URI, SplittableRandom, HttpRequest.Builder> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+        
+        HttpRequest request(URI base, SplittableRandom random) {
+            return request.apply(base, random).timeout(TIMEOUT).build();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.todoapp.loadtest;
+
+import com.example.todoapp.TodoAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Open-loop load test for the REST API.
+ *
+ * <p>Boots the application in-process on a random port, seeds todos through
+ * the batch endpoint, then sends a weighted mix of {@code /api/todos} and
+ * {@code /api/v1/todos} requests at a fixed arrival rate. Each request's
+ * latency is measured from when it was scheduled, not from when it was sent,
+ * so a stalled server shows up in the percentiles instead of quietly slowing
+ * the generator down. Per-endpoint HdrHistogram percentiles and throughput are
+ * printed and written as JSON, then compared with the previous run.
+ *
+ * <p>Options, all {@code --key=value}: rate, duration, warmup, todos, mix,
+ * arrival, max-in-flight, seed, result, baseline, threshold, update-baseline.
+ * Any other option is passed to the application, e.g.
+ * {@code --spring.datasource.url=jdbc:postgresql://localhost:5432/todoapp}.
+ */
+public final class LoadTest {
+    
+    private static final Set<String> OPTIONS = new HashSet<>(Arrays.asList(
+        "rate", "duration", "warmup", "todos", "mix", "arrival", "max-in-flight", "seed",
+        "result", "baseline", "threshold", "update-baseline"));
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("rate", "200");
+        options.put("duration", "PT60S");
+        options.put("warmup", "PT10S");
+        options.put("todos", "10000");
+        options.put("mix", LoadMix.DEFAULT);
+        options.put("arrival", "poisson");
+        options.put("max-in-flight", "2000");
+        options.put("seed", "42");
+        options.put("result", "target/loadtest-result.json");
+        options.put("baseline", "src/loadtest/baseline.json");
+        options.put("threshold", "10");
+        options.put("update-baseline", "false");
+        
+        // In-memory H2 unless overridden; later values replace these rather than joining them
+        Map<String, String> appArgs = new LinkedHashMap<>();
+        appArgs.put("spring.profiles.active", "loadtest");
+        appArgs.put("server.port", "0");
+        appArgs.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        appArgs.put("spring.datasource.username", "sa");
+        appArgs.put("spring.datasource.password", "");
+        appArgs.put("spring.jpa.hibernate.ddl-auto", "create");
+        appArgs.put("spring.sql.init.mode", "never");
+        appArgs.put("spring.devtools.restart.enabled", "false");
+        appArgs.put("logging.level.root", "WARN");
+        appArgs.put("logging.level.com.example.todoapp", "WARN");
+        appArgs.put("logging.level.org.springframework.web", "WARN");
+        appArgs.put("logging.level.org.hibernate.SQL", "WARN");
+        appArgs.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            (OPTIONS.contains(key) ? options : appArgs).put(key, value);
+        }
+        
+        String[] springArgs = appArgs.entrySet().stream()
+            .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+            .toArray(String[]::new);
+        
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoAppApplication.class).run(springArgs)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            long seed = Long.parseLong(options.get("seed"));
+            
+            int todos = Integer.parseInt(options.get("todos"));
+            System.out.printf("Seeding %d todos on %s%n", todos, appArgs.get("spring.datasource.url"));
+            List<Long> ids = LoadData.seed(client, base, todos, seed);
+            
+            LoadMix mix = LoadMix.parse(options.get("mix"), ids);
+            double rate = Double.parseDouble(options.get("rate"));
+            OpenLoopDriver driver = new OpenLoopDriver(client, base, mix, rate, poisson(options.get("arrival")),
+                                                       Integer.parseInt(options.get("max-in-flight")), seed);
+            
+            Duration warmup = Duration.parse(options.get("warmup"));
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up for %s at %.0f req/s%n", warmup, rate);
+                driver.run(warmup);
+            }
+            Duration duration = Duration.parse(options.get("duration"));
+            System.out.printf("Measuring for %s at %.0f req/s: %s%n", duration, rate, mix);
+            LatencyReport report = new LatencyReport(rate, todos, driver.run(duration));
+            
+            report.print(System.out);
+            report.write(Paths.get(options.get("result")));
+            report.compare(Paths.get(options.get("baseline")), Double.parseDouble(options.get("threshold")),
+                           Boolean.parseBoolean(options.get("update-baseline")));
+        }
+    }
+    
+    private static boolean poisson(String arrival) {
+        switch (arrival.toLowerCase(Locale.ROOT)) {
+            case "poisson":
+                return true;
+            case "uniform":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown arrival: " + arrival);
+        }
+    }
+}
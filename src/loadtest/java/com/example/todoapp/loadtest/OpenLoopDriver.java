@@ -0,0 +1,129 @@
+package com.example.todoapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on a fixed schedule whether or not earlier ones have
+ * answered. Inter-arrival times are exponential (Poisson arrivals) or
+ * constant. Latency runs from the scheduled send time to the response, which
+ * avoids coordinated omission: when the server stalls, every request scheduled
+ * during the stall is charged for the wait.
+ *
+ * <p>At most {@code maxInFlight} requests are outstanding; arrivals beyond
+ * that are counted as dropped rather than queued in the generator.
+ */
+final class OpenLoopDriver {
+    
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+    
+    private final HttpClient client;
+    private final URI base;
+    private final LoadMix mix;
+    private final double intervalNanos;
+    private final boolean poisson;
+    private final int maxInFlight;
+    private final SplittableRandom random;
+    
+    OpenLoopDriver(HttpClient client, URI base, LoadMix mix, double rate, boolean poisson, int maxInFlight, long seed) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        this.client = client;
+        this.base = base;
+        this.mix = mix;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.poisson = poisson;
+        this.maxInFlight = maxInFlight;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    Map<String, Result> run(Duration duration) throws InterruptedException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (LoadMix.Endpoint endpoint : mix.endpoints()) {
+            results.put(endpoint.name, new Result());
+        }
+        
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double scheduled = start;
+        while (true) {
+            scheduled += poisson ? -Math.log(1.0 - random.nextDouble()) * intervalNanos : intervalNanos;
+            long intended = (long) scheduled;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            
+            LoadMix.Endpoint endpoint = mix.pick(random);
+            Result result = results.get(endpoint.name);
+            if (!inFlight.tryAcquire()) {
+                result.dropped.increment();
+                continue;
+            }
+            HttpRequest request = endpoint.request(base, random);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    result.latency.recordValue(System.nanoTime() - intended);
+                    if (failure != null || response.statusCode() >= 400) {
+                        result.errors.increment();
+                    }
+                    inFlight.release();
+                });
+        }
+        
+        // Let outstanding requests finish so the slowest ones are not left out of the tail
+        if (!inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            System.out.printf("%d requests still outstanding after %ds; their latency is not recorded%n",
+                              maxInFlight - inFlight.availablePermits(), DRAIN_TIMEOUT_SECONDS);
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        
+        double seconds = (System.nanoTime() - start) / 1e9;
+        results.values().forEach(result -> result.seconds = seconds);
+        return results;
+    }
+    
+    static final class Result {
+        
+        // Nanoseconds; auto-resizing, so no response is too slow to record
+        final Histogram latency = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        double seconds;
+        
+        long count() {
+            return latency.getTotalCount();
+        }
+        
+        double throughput() {
+            return seconds > 0 ? count() / seconds : 0;
+        }
+        
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1e6;
+        }
+        
+        double maxMillis() {
+            return latency.getMaxValue() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todoapp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are backed by Caffeine; sizes and expiry come from
+ * {@code spring.cache.caffeine.spec}. Entries are keyed by collection version
+ * (see {@link com.example.todoapp.service.TodoLookupCache}), so writes never
+ * have to evict them; superseded entries age out.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // Both APIs: immutable TodoSnapshots by collection version and id
+    public static final String TODOS = "todos";
+}
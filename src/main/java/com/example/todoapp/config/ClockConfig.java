@@ -0,0 +1,19 @@
+package com.example.todoapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * The clock that "today" is read from, for the due-date views and the
+ * computed isOverdue/isDueToday/isDueSoon flags.
+ */
+@Configuration
+public class ClockConfig {
+    
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.todoapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs, such as the periodic
+ * reconciliation of {@link com.example.todoapp.stats.TodoStatistics}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,29 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.controller.TodoETagInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final TodoETagInterceptor etagInterceptor;
+    
+    public WebConfig(TodoETagInterceptor etagInterceptor) {
+        this.etagInterceptor = etagInterceptor;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(etagInterceptor)
+            .addPathPatterns("/api/todos/**", "/api/v1/todos/**")
+            // Stats are already answered from memory, and reconciliation changes them without a write;
+            // the event stream is never the same twice; the change feed advances with the clock;
+            // import progress changes while rows are written
+            .excludePathPatterns("/api/v1/todos/stats", "/api/v1/todos/events", "/api/v1/todos/changes",
+                                 "/api/v1/todos/import", "/api/v1/todos/imports", "/api/v1/todos/imports/**");
+    }
+}
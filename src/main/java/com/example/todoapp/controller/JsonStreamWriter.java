@@ -0,0 +1,64 @@
+package com.example.todoapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes items to a response body as they are produced, either as
+ * newline-delimited JSON or as a single JSON array, flushing regularly so
+ * clients can start consuming before the last row is read.
+ */
+class JsonStreamWriter<T> implements Consumer<T> {
+    
+    private static final int FLUSH_EVERY = 100;
+    
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private final boolean jsonArray;
+    private long written;
+    
+    private JsonStreamWriter(OutputStream out, ObjectMapper objectMapper, boolean jsonArray) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+        this.jsonArray = jsonArray;
+    }
+    
+    static <T> JsonStreamWriter<T> ndjson(OutputStream out, ObjectMapper objectMapper) {
+        return new JsonStreamWriter<>(out, objectMapper, false);
+    }
+    
+    static <T> JsonStreamWriter<T> jsonArray(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        out.write('[');
+        return new JsonStreamWriter<>(out, objectMapper, true);
+    }
+    
+    @Override
+    public void accept(T item) {
+        try {
+            if (jsonArray && written > 0) {
+                out.write(',');
+            }
+            out.write(objectMapper.writeValueAsBytes(item));
+            if (!jsonArray) {
+                out.write('\n');
+            }
+            if (++written % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Usually the client went away; abort the underlying query
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    void finish() throws IOException {
+        if (jsonArray) {
+            out.write(']');
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todoapp.controller;
+
+import com.example.todoapp.service.TodoCollectionVersion;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional GETs on the todo APIs from {@link TodoCollectionVersion}:
+ * a matching If-None-Match gets a 304 before the handler runs, from memory, so
+ * no query is made, no bulkhead slot or connection is taken and nothing is
+ * serialized. Other GETs are tagged with the version taken before the handler
+ * queries, so a tag never claims newer data than the body. With read replicas
+ * a version that is not yet settled is not handed out at all, since the
+ * replica serving the body may not have the change.
+ * JSON and NDJSON renderings of a list share the tag, so responses vary on Accept.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TodoETagInterceptor implements HandlerInterceptor {
+    
+    private final TodoCollectionVersion collectionVersion;
+    
+    public TodoETagInterceptor(TodoCollectionVersion collectionVersion) {
+        this.collectionVersion = collectionVersion;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // Async handlers are re-dispatched to render their result; the tag was fixed on the first pass
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!(handler instanceof HandlerMethod) || !isTodoApi((HandlerMethod) handler)) {
+            return true;
+        }
+        
+        // Let clients keep responses but revalidate them on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (!collectionVersion.settled()) {
+            return true;
+        }
+        return !new ServletWebRequest(request, response).checkNotModified(collectionVersion.etag());
+    }
+    
+    private static boolean isTodoApi(HandlerMethod handler) {
+        Class<?> type = handler.getBeanType();
+        return type == TodoRestController.class || type == TodoRestControllerModern.class;
+    }
+}
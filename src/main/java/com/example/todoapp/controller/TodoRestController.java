@@ -1,177 +1,319 @@
 package com.example.todoapp.controller;
 
 import com.example.todoapp.entity.Todo;
+import com.example.todoapp.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.todoapp.service.DatabaseBulkhead;
+import com.example.todoapp.service.TodoArchiveService;
 import com.example.todoapp.service.TodoService;
+import com.example.todoapp.service.TodoWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/todos")
 @CrossOrigin(origins = "*")
 public class TodoRestController {
     
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
     @Autowired
     private TodoService todoService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DatabaseBulkhead bulkhead;
+    
+    @Autowired
+    private TodoWriteBehind writeBehind;
+    
+    @Autowired
+    private TodoArchiveService archiveService;
+    
     // Create a new todo
     @PostMapping
-    public ResponseEntity<Todo> createTodo(@RequestBody Todo todo) {
-        try {
-            Todo createdTodo = todoService.createTodo(todo);
-            return new ResponseEntity<>(createdTodo, HttpStatus.CREATED);
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public CompletableFuture<ResponseEntity<Todo>> createTodo(@RequestBody Todo todo) {
+        return bulkhead.submit(() -> {
+            try {
+                Todo createdTodo = todoService.createTodo(todo);
+                return new ResponseEntity<>(createdTodo, HttpStatus.CREATED);
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
     
     // Get all todos
     @GetMapping
-    public ResponseEntity<List<Todo>> getAllTodos(
+    public CompletableFuture<ResponseEntity<List<Todo>>> getAllTodos(
             @RequestParam(required = false) String sort,
             @RequestParam(required = false) String filter,
-            @RequestParam(required = false) String search) {
-        try {
-            List<Todo> todos;
-            
-            if (search != null && !search.isEmpty()) {
-                todos = todoService.searchTodosByDescription(search);
-            } else if (filter != null) {
-                switch (filter.toLowerCase()) {
-                    case "completed":
-                        todos = todoService.getTodosByStatus(true);
-                        break;
-                    case "pending":
-                        todos = todoService.getTodosByStatus(false);
-                        break;
-                    case "overdue":
-                        todos = todoService.getOverdueTodos();
-                        break;
-                    case "due-today":
-                        todos = todoService.getTodosDueToday();
-                        break;
-                    case "high-priority":
-                        todos = todoService.getTodosByPriority(Todo.Priority.HIGH);
-                        break;
-                    case "urgent":
-                        todos = todoService.getTodosByPriority(Todo.Priority.URGENT);
-                        break;
-                    default:
-                        todos = todoService.getAllTodos();
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return bulkhead.submit(() -> {
+            try {
+                List<Todo> todos;
+                
+                if (search != null && !search.isEmpty()) {
+                    todos = todoService.searchTodosByDescription(search);
+                } else if (filter != null) {
+                    switch (filter.toLowerCase()) {
+                        case "completed":
+                            todos = todoService.getTodosByStatus(true);
+                            break;
+                        case "pending":
+                            todos = todoService.getTodosByStatus(false);
+                            break;
+                        case "overdue":
+                            todos = todoService.getOverdueTodos();
+                            break;
+                        case "due-today":
+                            todos = todoService.getTodosDueToday();
+                            break;
+                        case "high-priority":
+                            todos = todoService.getTodosByPriority(Todo.Priority.HIGH);
+                            break;
+                        case "urgent":
+                            todos = todoService.getTodosByPriority(Todo.Priority.URGENT);
+                            break;
+                        default:
+                            todos = todoService.getAllTodos();
+                    }
+                } else if ("priority".equals(sort)) {
+                    todos = todoService.getAllTodosOrdered();
+                } else {
+                    todos = todoService.getAllTodos();
                 }
-            } else if ("priority".equals(sort)) {
-                todos = todoService.getAllTodosOrdered();
-            } else {
-                todos = todoService.getAllTodos();
+                
+                // Archived todos are all completed, so only the unfiltered and completed lists gain any
+                boolean archiveMatches = filter == null || "completed".equalsIgnoreCase(filter);
+                if (includeArchived && (search == null || search.isEmpty()) && archiveMatches) {
+                    todos = new ArrayList<>(todos);
+                    todos.addAll(archiveService.findAll());
+                }
+                
+                return new ResponseEntity<>(todos, HttpStatus.OK);
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
             }
-            
-            return new ResponseEntity<>(todos, HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+    }
+    
+    // Stream all todos as newline-delimited JSON (Accept: application/x-ndjson)
+    @GetMapping(produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamTodosAsNdjson(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean includeArchived,
+            WebRequest request) {
+        if (filter != null || search != null || includeArchived != null) {
+            return unsupportedWhenStreaming(request);
         }
+        boolean orderedByPriority = "priority".equals(sort);
+        StreamingResponseBody body = out -> {
+            JsonStreamWriter<Todo> writer = JsonStreamWriter.ndjson(out, objectMapper);
+            todoService.streamTodos(orderedByPriority, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
     }
     
-    // Get todo by ID
-    @GetMapping("/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable Long id) {
-        Optional<Todo> todo = todoService.getTodoById(id);
-        if (todo.isPresent()) {
-            return new ResponseEntity<>(todo.get(), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    // Stream all todos as a chunked JSON array (?stream=true)
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTodosAsJsonArray(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean includeArchived,
+            WebRequest request) {
+        if (filter != null || search != null || includeArchived != null) {
+            return unsupportedWhenStreaming(request);
         }
+        boolean orderedByPriority = "priority".equals(sort);
+        StreamingResponseBody body = out -> {
+            JsonStreamWriter<Todo> writer = JsonStreamWriter.jsonArray(out, objectMapper);
+            todoService.streamTodos(orderedByPriority, writer);
+            writer.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
     
-    // Update todo
-    @PutMapping("/{id}")
-    public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @RequestBody Todo todoDetails) {
-        try {
-            Todo updatedTodo = todoService.updateTodo(id, todoDetails);
-            if (updatedTodo != null) {
-                return new ResponseEntity<>(updatedTodo, HttpStatus.OK);
+    // The export streams the live table in one pass, so list filters are refused rather than ignored. The error
+    // is written here because the exception handler's JSON body cannot be negotiated for Accept: application/x-ndjson
+    private ResponseEntity<StreamingResponseBody> unsupportedWhenStreaming(WebRequest request) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid request",
+            "filter, search and includeArchived are not supported when streaming",
+            request.getDescription(false),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+    
+    // Get todo by ID; ?includeArchived=true also looks in the archive
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Todo>> getTodoById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return bulkhead.submit(() -> {
+            Optional<Todo> todo = todoService.getTodoById(id);
+            if (!todo.isPresent() && includeArchived) {
+                todo = archiveService.findById(id);
+            }
+            if (todo.isPresent()) {
+                return new ResponseEntity<>(todo.get(), HttpStatus.OK);
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+    }
+    
+    // Update todo
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Todo>> updateTodo(@PathVariable Long id, @RequestBody Todo todoDetails) {
+        if (writeBehind.isEnabled()) {
+            return bulkhead.submit(() -> writeBehind.update(id, todoDetails))
+                .thenCompose(written -> written.handle(TodoRestController::toWriteResponse));
         }
+        return bulkhead.submit(() -> {
+            try {
+                Todo updatedTodo = todoService.updateTodo(id, todoDetails);
+                if (updatedTodo != null) {
+                    return new ResponseEntity<>(updatedTodo, HttpStatus.OK);
+                } else {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
     
     // Delete todo
     @DeleteMapping("/{id}")
-    public ResponseEntity<HttpStatus> deleteTodo(@PathVariable Long id) {
-        try {
-            boolean deleted = todoService.deleteTodo(id);
-            if (deleted) {
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-            } else {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public CompletableFuture<ResponseEntity<HttpStatus>> deleteTodo(@PathVariable Long id) {
+        return bulkhead.submit(() -> {
+            try {
+                boolean deleted = todoService.deleteTodo(id);
+                if (deleted) {
+                    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                } else {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+            } catch (Exception e) {
+                return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
             }
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        });
     }
     
     // Toggle todo completion
     @PatchMapping("/{id}/toggle")
-    public ResponseEntity<Todo> toggleTodoCompletion(@PathVariable Long id) {
-        try {
-            Todo updatedTodo = todoService.toggleTodoCompletion(id);
-            if (updatedTodo != null) {
-                return new ResponseEntity<>(updatedTodo, HttpStatus.OK);
-            } else {
-                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public CompletableFuture<ResponseEntity<Todo>> toggleTodoCompletion(@PathVariable Long id) {
+        if (writeBehind.isEnabled()) {
+            return bulkhead.submit(() -> writeBehind.toggle(id))
+                .thenCompose(written -> written.handle(TodoRestController::toWriteResponse));
+        }
+        return bulkhead.submit(() -> {
+            try {
+                Todo updatedTodo = todoService.toggleTodoCompletion(id);
+                if (updatedTodo != null) {
+                    return new ResponseEntity<>(updatedTodo, HttpStatus.OK);
+                } else {
+                    return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                }
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
             }
-        } catch (Exception e) {
+        });
+    }
+    
+    // Response for a write-behind edit; bulkhead rejections still surface as 503 from submit
+    private static ResponseEntity<Todo> toWriteResponse(Todo todo, Throwable failure) {
+        if (failure != null) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        if (todo == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(todo, HttpStatus.OK);
     }
     
     // Get todos by priority
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Todo>> getTodosByPriority(@PathVariable String priority) {
-        try {
-            Todo.Priority priorityEnum = Todo.Priority.valueOf(priority.toUpperCase());
-            List<Todo> todos = todoService.getTodosByPriority(priorityEnum);
-            return new ResponseEntity<>(todos, HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public CompletableFuture<ResponseEntity<List<Todo>>> getTodosByPriority(@PathVariable String priority) {
+        return bulkhead.submit(() -> {
+            try {
+                Todo.Priority priorityEnum = Todo.Priority.valueOf(priority.toUpperCase());
+                List<Todo> todos = todoService.getTodosByPriority(priorityEnum);
+                return new ResponseEntity<>(todos, HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
     
-    // Get todos by collaborator
+    // Get todos by collaborator (match=exact by default, or match=prefix)
     @GetMapping("/collaborator/{collaborator}")
-    public ResponseEntity<List<Todo>> getTodosByCollaborator(@PathVariable String collaborator) {
-        try {
-            List<Todo> todos = todoService.getTodosByCollaborator(collaborator);
-            return new ResponseEntity<>(todos, HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public CompletableFuture<ResponseEntity<List<Todo>>> getTodosByCollaborator(
+            @PathVariable String collaborator,
+            @RequestParam(defaultValue = "exact") String match) {
+        return bulkhead.submit(() -> {
+            try {
+                List<Todo> todos = "prefix".equalsIgnoreCase(match)
+                        ? todoService.getTodosByCollaboratorPrefix(collaborator)
+                        : todoService.getTodosByCollaborator(collaborator);
+                return new ResponseEntity<>(todos, HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
     
     // Get todos by date range
     @GetMapping("/date-range")
-    public ResponseEntity<List<Todo>> getTodosByDateRange(
+    public CompletableFuture<ResponseEntity<List<Todo>>> getTodosByDateRange(
             @RequestParam String startDate,
             @RequestParam String endDate) {
-        try {
-            LocalDate start = LocalDate.parse(startDate);
-            LocalDate end = LocalDate.parse(endDate);
-            List<Todo> todos = todoService.getTodosByDateRange(start, end);
-            return new ResponseEntity<>(todos, HttpStatus.OK);
-        } catch (Exception e) {
-            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        return bulkhead.submit(() -> {
+            try {
+                LocalDate start = LocalDate.parse(startDate);
+                LocalDate end = LocalDate.parse(endDate);
+                List<Todo> todos = todoService.getTodosByDateRange(start, end);
+                return new ResponseEntity<>(todos, HttpStatus.OK);
+            } catch (Exception e) {
+                return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
     }
-
+    
     // // create /health controller
     // @GetMapping("/actuator/health")
     // public ResponseEntity<String> health() {
@@ -1,115 +1,396 @@
 package com.example.todoapp.controller;
 
+import com.example.todoapp.dto.CursorPageResponse;
+import com.example.todoapp.dto.TodoBatchRequest;
+import com.example.todoapp.dto.TodoBatchResponse;
+import com.example.todoapp.dto.TodoBulkToggleRequest;
+import com.example.todoapp.dto.TodoBulkToggleResponse;
+import com.example.todoapp.dto.TodoChangesResponse;
 import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.dto.TodoImportStatus;
 import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.dto.TodoStatsResponse;
+import com.example.todoapp.dto.TodoSummary;
 import com.example.todoapp.dto.TodoUpdateRequest;
 import com.example.todoapp.entity.Todo;
+import com.example.todoapp.service.DatabaseBulkhead;
+import com.example.todoapp.service.TodoArchiveService;
+import com.example.todoapp.service.TodoBatchService;
+import com.example.todoapp.service.TodoChangeBroadcaster;
+import com.example.todoapp.service.TodoChangeFeedService;
+import com.example.todoapp.service.TodoImportService;
 import com.example.todoapp.service.TodoServiceModern;
+import com.example.todoapp.stats.TodoStatistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/todos")
 @CrossOrigin(origins = "*")
 @Validated
 public class TodoRestControllerModern {
     
     private final TodoServiceModern todoService;
+    private final TodoBatchService batchService;
+    private final TodoStatistics statistics;
+    private final TodoChangeBroadcaster changeBroadcaster;
+    private final TodoChangeFeedService changeFeedService;
+    private final TodoArchiveService archiveService;
+    private final TodoImportService importService;
+    private final DatabaseBulkhead bulkhead;
+    private final Clock clock;
     
-    public TodoRestControllerModern(TodoServiceModern todoService) {
+    public TodoRestControllerModern(TodoServiceModern todoService, TodoBatchService batchService,
+                                    TodoStatistics statistics, TodoChangeBroadcaster changeBroadcaster,
+                                    TodoChangeFeedService changeFeedService, TodoArchiveService archiveService,
+                                    TodoImportService importService, DatabaseBulkhead bulkhead, Clock clock) {
         this.todoService = todoService;
+        this.batchService = batchService;
+        this.statistics = statistics;
+        this.changeBroadcaster = changeBroadcaster;
+        this.changeFeedService = changeFeedService;
+        this.archiveService = archiveService;
+        this.importService = importService;
+        this.bulkhead = bulkhead;
+        this.clock = clock;
     }
     
     @PostMapping
-    public ResponseEntity<TodoResponse> createTodo(@Valid @RequestBody TodoCreateRequest request) {
-        Todo todo = todoService.createTodo(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(TodoResponse.from(todo));
+    public CompletableFuture<ResponseEntity<TodoResponse>> createTodo(@Valid @RequestBody TodoCreateRequest request) {
+        return bulkhead.submit(() -> {
+            Todo todo = todoService.createTodo(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(TodoResponse.from(todo, today()));
+        });
     }
     
+    // sort=completed&sort=priority&sort=endDate,asc etc.; see TodoSort for the accepted keys
     @GetMapping
-    public ResponseEntity<Page<TodoResponse>> getAllTodos(
+    public CompletableFuture<ResponseEntity<Page<TodoResponse>>> getAllTodos(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String filter,
-            @RequestParam(required = false) String sort,
             @PageableDefault(size = 20) Pageable pageable) {
         
-        Page<Todo> todos = todoService.getAllTodos(search, filter, sort, pageable);
-        Page<TodoResponse> response = todos.map(TodoResponse::from);
-        return ResponseEntity.ok(response);
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            Page<Todo> todos = todoService.getAllTodos(search, filter, pageable);
+            Page<TodoResponse> response = todos.map(todo -> TodoResponse.from(todo, today));
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    // List views: ?view=summary returns TodoSummary rows (truncated description, no comments);
+    // view=full, or no view, keeps the full TodoResponse
+    @GetMapping(params = "view=summary")
+    public CompletableFuture<ResponseEntity<Page<TodoSummary>>> getAllTodoSummaries(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return bulkhead.submit(() ->
+            ResponseEntity.ok(withDueFlags(todoService.getAllTodoSummaries(search, filter, pageable), today())));
+    }
+    
+    // Keyset pagination: pass `limit` (and `after` from the previous page's nextCursor)
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<CursorPageResponse<TodoResponse>>> getAllTodosByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(100) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            CursorPageResponse<Todo> todos = todoService.getTodosAfter(search, filter, after, limit, count);
+            return ResponseEntity.ok(todos.map(todo -> TodoResponse.from(todo, today)));
+        });
+    }
+    
+    @GetMapping(params = {"limit", "view=summary"})
+    public CompletableFuture<ResponseEntity<CursorPageResponse<TodoSummary>>> getTodoSummariesByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(100) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return bulkhead.submit(() -> {
+            CursorPageResponse<TodoSummary> summaries = todoService.getTodoSummariesAfter(search, filter, after, limit, count);
+            withDueFlags(summaries.getContent(), today());
+            return ResponseEntity.ok(summaries);
+        });
+    }
+    
+    // Multi-get: GET /api/v1/todos?ids=1,2,3 resolves with a single IN query
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosByIds(
+            @RequestParam @Size(max = 1000) List<Long> ids) {
+        return bulkhead.submit(() -> ResponseEntity.ok(toResponses(todoService.getTodosByIds(ids), today())));
+    }
+    
+    // Multi-get has no summary view; without this mapping `ids` and `view=summary` would match two handlers
+    @GetMapping(params = {"ids", "view=summary"})
+    public ResponseEntity<List<TodoSummary>> getTodoSummariesByIds() {
+        throw new IllegalArgumentException("view=summary is not supported with ids; fetch full todos or list summaries");
+    }
+    
+    // Multi-get is not paged; `ids` with `limit` would otherwise match the multi-get and cursor handlers
+    @GetMapping(params = {"ids", "limit"})
+    public ResponseEntity<List<TodoResponse>> getTodosByIdsWithLimit() {
+        throw new IllegalArgumentException("limit is not supported with ids; a multi-get returns every requested todo");
+    }
+    
+    // Adding view=summary makes three two-parameter mappings match, so this combination needs its own
+    @GetMapping(params = {"ids", "limit", "view=summary"})
+    public ResponseEntity<List<TodoSummary>> getTodoSummariesByIdsWithLimit() {
+        throw new IllegalArgumentException("limit is not supported with ids; a multi-get returns every requested todo");
+    }
+    
+    // Mixed create/update/delete operations with a result per item
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<TodoBatchResponse>> executeBatch(@Valid @RequestBody TodoBatchRequest request) {
+        return bulkhead.submit(() -> ResponseEntity.ok(batchService.execute(request)));
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<TodoStatsResponse> getStats() {
+        return ResponseEntity.ok(statistics.getStats());
+    }
+    
+    // Committed changes as Server-Sent Events: "todo" per change, "resync" when the client fell behind
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return changeBroadcaster.subscribe();
+    }
+    
+    // Todos changed and ids deleted since the token; omit `since` for a first full sync
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<TodoChangesResponse>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+        return bulkhead.submit(() -> ResponseEntity.ok(changeFeedService.getChanges(since, limit)));
+    }
+    
+    // Accept a CSV (with a header row) or NDJSON upload and import it in the background: 202 with the
+    // queued import's status, whose Location is the status endpoint to poll. The body is read to a
+    // temporary file on this thread, outside the database bulkhead, before the response goes out.
+    @PostMapping(path = "/import", consumes = {TodoImportService.TEXT_CSV, TodoImportService.APPLICATION_NDJSON})
+    public ResponseEntity<TodoImportStatus> importTodos(HttpServletRequest request) throws IOException {
+        TodoImportService.Format format = MediaType.parseMediaType(request.getContentType())
+            .isCompatibleWith(MediaType.parseMediaType(TodoImportService.TEXT_CSV))
+            ? TodoImportService.Format.CSV : TodoImportService.Format.NDJSON;
+        Charset charset = request.getCharacterEncoding() != null
+            ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        TodoImportStatus status = importService.startImport(format, request.getInputStream(), charset);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/todos/imports/" + status.getId()))
+            .body(status);
+    }
+    
+    // Queued, running and recent imports, newest first; poll these to follow a long upload
+    @GetMapping("/imports")
+    public ResponseEntity<List<TodoImportStatus>> getImports() {
+        return ResponseEntity.ok(importService.getImports());
+    }
+    
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<TodoImportStatus> getImport(@PathVariable String id) {
+        return ResponseEntity.ok(importService.getImport(id)
+            .orElseThrow(() -> new EntityNotFoundException("Import not found with ID: " + id)));
+    }
+    
+    // Archived todos, most recently archived first
+    @GetMapping("/archived")
+    public CompletableFuture<ResponseEntity<Page<TodoResponse>>> getArchivedTodos(
+            @PageableDefault(size = 20) Pageable pageable) {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(archiveService.findAll(pageable).map(todo -> TodoResponse.from(todo, today)));
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<TodoResponse> getTodoById(@PathVariable @Min(1) Long id) {
-        Todo todo = todoService.getTodoById(id);
-        return ResponseEntity.ok(TodoResponse.from(todo));
+    public CompletableFuture<ResponseEntity<TodoResponse>> getTodoById(
+            @PathVariable @Min(1) Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return bulkhead.submit(() -> {
+            try {
+                return ResponseEntity.ok(todoService.getTodoResponseById(id));
+            } catch (EntityNotFoundException ex) {
+                // The archive is only consulted on a miss, so live reads cost the same as before
+                Todo archived = includeArchived ? archiveService.findById(id).orElse(null) : null;
+                if (archived == null) {
+                    throw ex;
+                }
+                return ResponseEntity.ok(TodoResponse.from(archived, today()));
+            }
+        });
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<TodoResponse> updateTodo(
+    public CompletableFuture<ResponseEntity<TodoResponse>> updateTodo(
             @PathVariable @Min(1) Long id,
             @Valid @RequestBody TodoUpdateRequest request) {
-        Todo todo = todoService.updateTodo(id, request);
-        return ResponseEntity.ok(TodoResponse.from(todo));
+        return bulkhead.submit(() -> ResponseEntity.ok(TodoResponse.from(todoService.updateTodo(id, request), today())));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTodo(@PathVariable @Min(1) Long id) {
-        todoService.deleteTodo(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteTodo(@PathVariable @Min(1) Long id) {
+        return bulkhead.submit(() -> {
+            todoService.deleteTodo(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
     }
     
     @PatchMapping("/{id}/toggle")
-    public ResponseEntity<TodoResponse> toggleTodoCompletion(@PathVariable @Min(1) Long id) {
-        Todo todo = todoService.toggleTodoCompletion(id);
-        return ResponseEntity.ok(TodoResponse.from(todo));
+    public CompletableFuture<ResponseEntity<TodoResponse>> toggleTodoCompletion(@PathVariable @Min(1) Long id) {
+        return bulkhead.submit(() -> ResponseEntity.ok(TodoResponse.from(todoService.toggleTodoCompletion(id), today())));
+    }
+    
+    // Bulk toggle: {"ids": [...]} or {"filter": "pending", "completed": true} in one statement
+    @PatchMapping("/toggle")
+    public CompletableFuture<ResponseEntity<TodoBulkToggleResponse>> toggleTodos(
+            @Valid @RequestBody TodoBulkToggleRequest request) {
+        return bulkhead.submit(() -> ResponseEntity.ok(todoService.toggleTodos(request)));
     }
     
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TodoResponse>> getTodosByPriority(@PathVariable Todo.Priority priority) {
-        List<Todo> todos = todoService.getTodosByPriority(priority);
-        List<TodoResponse> response = todos.stream()
-            .map(TodoResponse::from)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosByPriority(
+            @PathVariable Todo.Priority priority) {
+        return bulkhead.submit(() -> ResponseEntity.ok(toResponses(todoService.getTodosByPriority(priority), today())));
+    }
+    
+    @GetMapping(path = "/priority/{priority}", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getTodoSummariesByPriority(
+            @PathVariable Todo.Priority priority) {
+        return bulkhead.submit(() ->
+            ResponseEntity.ok(withDueFlags(todoService.getTodoSummariesByPriority(priority), today())));
+    }
+    
+    @GetMapping("/collaborator/{collaborator}")
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosByCollaborator(
+            @PathVariable String collaborator,
+            @RequestParam(defaultValue = "exact") String match) {
+        return bulkhead.submit(() -> {
+            List<Todo> todos = "prefix".equalsIgnoreCase(match)
+                ? todoService.getTodosByCollaboratorPrefix(collaborator)
+                : todoService.getTodosByCollaborator(collaborator);
+            return ResponseEntity.ok(toResponses(todos, today()));
+        });
+    }
+    
+    @GetMapping(path = "/collaborator/{collaborator}", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getTodoSummariesByCollaborator(
+            @PathVariable String collaborator,
+            @RequestParam(defaultValue = "exact") String match) {
+        return bulkhead.submit(() -> ResponseEntity.ok(withDueFlags("prefix".equalsIgnoreCase(match)
+            ? todoService.getTodoSummariesByCollaboratorPrefix(collaborator)
+            : todoService.getTodoSummariesByCollaborator(collaborator), today())));
     }
     
     @GetMapping("/date-range")
-    public ResponseEntity<List<TodoResponse>> getTodosByDateRange(
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosByDateRange(
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate) {
-        List<Todo> todos = todoService.getTodosByDateRange(startDate, endDate);
-        List<TodoResponse> response = todos.stream()
-            .map(TodoResponse::from)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return bulkhead.submit(() ->
+            ResponseEntity.ok(toResponses(todoService.getTodosByDateRange(startDate, endDate), today())));
+    }
+    
+    @GetMapping(path = "/date-range", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getTodoSummariesByDateRange(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return bulkhead.submit(() ->
+            ResponseEntity.ok(withDueFlags(todoService.getTodoSummariesByDateRange(startDate, endDate), today())));
     }
     
+    // The due-date views read `today` once and use it for the lookup and for every computed flag
     @GetMapping("/overdue")
-    public ResponseEntity<List<TodoResponse>> getOverdueTodos() {
-        List<Todo> todos = todoService.getOverdueTodos();
-        List<TodoResponse> response = todos.stream()
-            .map(TodoResponse::from)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getOverdueTodos() {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(toResponses(todoService.getOverdueTodos(today), today));
+        });
+    }
+    
+    @GetMapping(path = "/overdue", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getOverdueTodoSummaries() {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(withDueFlags(todoService.getOverdueTodoSummaries(today), today));
+        });
     }
     
     @GetMapping("/due-today")
-    public ResponseEntity<List<TodoResponse>> getTodosDueToday() {
-        List<Todo> todos = todoService.getTodosDueToday();
-        List<TodoResponse> response = todos.stream()
-            .map(TodoResponse::from)
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosDueToday() {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(toResponses(todoService.getTodosDueToday(today), today));
+        });
+    }
+    
+    @GetMapping(path = "/due-today", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getTodoSummariesDueToday() {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(withDueFlags(todoService.getTodoSummariesDueToday(today), today));
+        });
+    }
+    
+    // Pending todos due within `days` days, overdue ones included
+    @GetMapping("/due-soon")
+    public CompletableFuture<ResponseEntity<List<TodoResponse>>> getTodosDueSoon(
+            @RequestParam(defaultValue = "3") @Min(0) @Max(365) int days) {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(toResponses(todoService.getTodosDueSoon(today, days), today));
+        });
+    }
+    
+    @GetMapping(path = "/due-soon", params = "view=summary")
+    public CompletableFuture<ResponseEntity<List<TodoSummary>>> getTodoSummariesDueSoon(
+            @RequestParam(defaultValue = "3") @Min(0) @Max(365) int days) {
+        return bulkhead.submit(() -> {
+            LocalDate today = today();
+            return ResponseEntity.ok(withDueFlags(todoService.getTodoSummariesDueSoon(today, days), today));
+        });
+    }
+    
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+    
+    private static List<TodoResponse> toResponses(List<Todo> todos, LocalDate today) {
+        return todos.stream()
+            .map(todo -> TodoResponse.from(todo, today))
             .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    }
+    
+    private static <T extends Iterable<TodoSummary>> T withDueFlags(T summaries, LocalDate today) {
+        summaries.forEach(summary -> summary.withDueFlags(today));
+        return summaries;
     }
 }
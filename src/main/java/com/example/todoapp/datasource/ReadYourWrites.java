@@ -0,0 +1,114 @@
+package com.example.todoapp.datasource;
+
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client on the primary for a short while after it wrote.
+ *
+ * <p>When a change commits inside a request, the response gets a cookie with
+ * the commit time. Requests carrying a cookie younger than
+ * {@code app.read-replicas.read-your-writes-window} (and the rest of the
+ * writing request itself) read from the primary, so a replica that has not
+ * replayed the write yet never hides it from its author. The window must be
+ * longer than {@code max-lag} plus the lag check interval. Because the state
+ * travels with the client, it holds across application instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.read-replicas.enabled", havingValue = "true")
+public class ReadYourWrites {
+    
+    static final String COOKIE = "todo-last-write";
+    
+    // Request attributes: the cached routing decision, and whether the cookie was already issued
+    private static final String PINNED = ReadYourWrites.class.getName() + ".PINNED";
+    private static final String ISSUED = ReadYourWrites.class.getName() + ".ISSUED";
+    
+    private final Clock clock;
+    private final long windowMillis;
+    
+    public ReadYourWrites(Clock clock,
+                          @Value("${app.read-replicas.read-your-writes-window:PT5S}") Duration window) {
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        pinAfterWrite();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        pinAfterWrite();
+    }
+    
+    private void pinAfterWrite() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        
+        // Once per request: a batch publishes an event per todo
+        if (attributes.getAttribute(ISSUED, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        attributes.setAttribute(ISSUED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        attributes.setAttribute(PINNED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(clock.millis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+    
+    // True when the current request must not read from a replica
+    public boolean requiresPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        
+        Object pinned = attributes.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST);
+        if (pinned == null) {
+            pinned = wroteRecently(((ServletRequestAttributes) attributes).getRequest());
+            attributes.setAttribute(PINNED, pinned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Boolean) pinned;
+    }
+    
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return clock.millis() - Long.parseLong(cookie.getValue()) < windowMillis;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.todoapp.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replaces Boot's DataSource with one that routes read-only transactions to
+ * read replicas, when {@code app.read-replicas.enabled} is set.
+ *
+ * <p>The primary pool is built from the usual {@code spring.datasource.*} and
+ * {@code spring.datasource.hikari.*} properties. Each entry of
+ * {@code app.read-replicas.pools} is bound onto a Hikari pool the same way
+ * ({@code jdbc-url}, {@code username}, {@code password},
+ * {@code maximum-pool-size}, ...) and must have a {@code pool-name}. Not used
+ * under the {@code reactive} profile, which declares its own DataSource.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaRoutingConfig {
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+            ReadYourWrites readYourWrites,
+            @Value("${app.read-replicas.selection:round-robin}") String selection,
+            @Value("${app.read-replicas.max-lag:PT1S}") Duration maxLag,
+            @Value("${app.read-replicas.lag-query}") String lagQuery) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(metrics);
+        
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<HikariConfig> pools = binder.bind("app.read-replicas.pools", Bindable.listOf(HikariConfig.class))
+            .orElse(Collections.emptyList());
+        for (HikariConfig pool : pools) {
+            if (pool.getPoolName() == null) {
+                throw new IllegalArgumentException("Every app.read-replicas.pools entry needs a pool-name");
+            }
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(metrics);
+            replicas.add(new HikariDataSource(pool));
+        }
+        
+        return new ReplicaRoutingDataSource(primary, replicas, selection, maxLag, lagQuery,
+                                            readYourWrites, meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
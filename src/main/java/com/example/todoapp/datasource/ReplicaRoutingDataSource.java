@@ -0,0 +1,252 @@
+package com.example.todoapp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>A connection goes to a replica when the current transaction is read-only,
+ * it runs for a web request, and {@link ReadYourWrites} does not pin that
+ * request to the primary. Background jobs (index rebuilds, read model checks,
+ * reconciliations) keep reading the primary: they rebuild state that must
+ * include every commit. Among the replicas whose last measured lag is within
+ * {@code max-lag}, one is picked round-robin or by fewest busy connections;
+ * when none qualifies the read falls back to the primary.
+ *
+ * <p>The choice sticks for the rest of the request: later reads go to the same
+ * replica, or to the primary if it has dropped out, never to another replica.
+ * Reads within a request therefore never go back in time, which keeps the
+ * collection version an ETag is built from no newer than the body it tags.
+ *
+ * <p>The lookup happens when the first statement runs, so this must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy};
+ * JPA opens the connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    static final String PRIMARY = "primary";
+    
+    // Request attribute holding the lookup key the request's first replica-eligible read went to
+    private static final String ROUTED_TO = ReplicaRoutingDataSource.class.getName() + ".ROUTED_TO";
+    
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final boolean leastConnections;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryReads;
+    private final Counter primaryFallbacks;
+    
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    String selection, Duration maxLag, String lagQuery,
+                                    ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        switch (selection.toLowerCase(Locale.ROOT)) {
+            case "round-robin":
+                this.leastConnections = false;
+                break;
+            case "least-connections":
+                this.leastConnections = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown app.read-replicas.selection: " + selection);
+        }
+        
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.readYourWrites = readYourWrites;
+        
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, meterRegistry);
+            replicas.add(replica);
+            targets.put(replica.name, pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        
+        this.primaryReads = Counter.builder("todo.datasource.reads")
+            .description("Read-only transactions served, by data source")
+            .tag("target", PRIMARY)
+            .register(meterRegistry);
+        this.primaryFallbacks = Counter.builder("todo.datasource.fallbacks")
+            .description("Replica-eligible reads sent to the primary because no replica was within max lag")
+            .register(meterRegistry);
+        
+        afterPropertiesSet();
+        checkLag();
+        logger.info("Routing read-only transactions to {} replicas ({}, max lag {})",
+                    replicas.size(), selection, maxLag);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || readYourWrites.requiresPrimary()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        
+        Object routedTo = attributes.getAttribute(ROUTED_TO, RequestAttributes.SCOPE_REQUEST);
+        Replica replica = routedTo == null ? select() : sticky(routedTo);
+        if (replica == null) {
+            if (routedTo == null) {
+                primaryFallbacks.increment();
+            }
+            attributes.setAttribute(ROUTED_TO, PRIMARY, RequestAttributes.SCOPE_REQUEST);
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        attributes.setAttribute(ROUTED_TO, replica.name, RequestAttributes.SCOPE_REQUEST);
+        replica.reads.increment();
+        return replica.name;
+    }
+    
+    // The replica this request already read from, if it is still within max lag
+    private Replica sticky(Object routedTo) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(routedTo)) {
+                return replica.healthy ? replica : null;
+            }
+        }
+        return null;
+    }
+    
+    private Replica select() {
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        
+        if (!leastConnections) {
+            return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+        }
+        Replica best = null;
+        int fewest = Integer.MAX_VALUE;
+        for (Replica replica : candidates) {
+            int busy = replica.busyConnections();
+            if (busy < fewest) {
+                best = replica;
+                fewest = busy;
+            }
+        }
+        return best;
+    }
+    
+    // Replicas behind by more than max-lag, or unreachable, are skipped until a later check clears them
+    @Scheduled(fixedDelayString = "${app.read-replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try {
+                replica.lagMillis = measureLag(replica.pool);
+                replica.healthy = replica.lagMillis <= maxLagMillis;
+                if (wasHealthy && !replica.healthy) {
+                    logger.warn("Replica {} is {} ms behind; reading from the others", replica.name, replica.lagMillis);
+                }
+            } catch (SQLException ex) {
+                replica.lagMillis = -1;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    logger.warn("Replica {} failed its lag check; reading from the others", replica.name, ex);
+                }
+            }
+            if (!wasHealthy && replica.healthy) {
+                logger.info("Replica {} is back within max lag ({} ms)", replica.name, replica.lagMillis);
+            }
+        }
+    }
+    
+    private long measureLag(DataSource pool) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            return resultSet.next() ? Math.round(resultSet.getDouble(1) * 1000) : 0L;
+        }
+    }
+    
+    List<String> healthyReplicas() {
+        List<String> names = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                names.add(replica.name);
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+    
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+        primary.close();
+    }
+    
+    private static final class Replica {
+        
+        final String name;
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile long lagMillis = -1;
+        volatile boolean healthy;
+        
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+            this.reads = Counter.builder("todo.datasource.reads")
+                .description("Read-only transactions served, by data source")
+                .tag("target", name)
+                .register(meterRegistry);
+            Gauge.builder("todo.datasource.replica.lag", this, replica -> replica.lagMillis / 1000.0)
+                .description("Replication lag at the last check in seconds, -1 if the check failed")
+                .tag("target", name)
+                .register(meterRegistry);
+        }
+        
+        int busyConnections() {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            return bean == null ? 0 : bean.getActiveConnections() + bean.getThreadsAwaitingConnection();
+        }
+    }
+}
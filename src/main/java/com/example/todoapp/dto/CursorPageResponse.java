@@ -0,0 +1,70 @@
+package com.example.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CursorPageResponse<T> {
+    
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    
+    // Only populated when the client asks for it, since counting costs a full scan
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    
+    // Default constructor
+    public CursorPageResponse() {}
+    
+    // Constructor with all fields
+    public CursorPageResponse(List<T> content, String nextCursor, boolean hasNext, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+    }
+    
+    // Convert the content while keeping the paging metadata
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream()
+            .map(converter)
+            .collect(Collectors.toList());
+        return new CursorPageResponse<>(converted, nextCursor, hasNext, totalElements);
+    }
+    
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public Long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
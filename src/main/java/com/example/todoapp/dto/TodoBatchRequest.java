@@ -0,0 +1,61 @@
+package com.example.todoapp.dto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class TodoBatchRequest {
+    
+    // Operations are validated one by one so a bad item does not reject the whole batch
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 5000, message = "A batch must not exceed 5000 operations")
+    private List<Operation> operations;
+    
+    // Default constructor
+    public TodoBatchRequest() {}
+    
+    public TodoBatchRequest(List<Operation> operations) {
+        this.operations = operations;
+    }
+    
+    public List<Operation> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+    
+    public enum OperationType {
+        CREATE, UPDATE, DELETE
+    }
+    
+    public static class Operation {
+        private OperationType type;
+        private Long id;
+        private TodoCreateRequest create;
+        private TodoUpdateRequest update;
+        
+        public Operation() {}
+        
+        public Operation(OperationType type, Long id, TodoCreateRequest create, TodoUpdateRequest update) {
+            this.type = type;
+            this.id = id;
+            this.create = create;
+            this.update = update;
+        }
+        
+        // Getters and setters
+        public OperationType getType() { return type; }
+        public void setType(OperationType type) { this.type = type; }
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public TodoCreateRequest getCreate() { return create; }
+        public void setCreate(TodoCreateRequest create) { this.create = create; }
+        
+        public TodoUpdateRequest getUpdate() { return update; }
+        public void setUpdate(TodoUpdateRequest update) { this.update = update; }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class TodoBatchResponse {
+    
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+    
+    // Default constructor
+    public TodoBatchResponse() {}
+    
+    public TodoBatchResponse(List<Result> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(Result::isSuccess).count();
+        this.failed = results.size() - succeeded;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<Result> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+    
+    // Outcome of a single operation, in request order
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+        private int index;
+        private TodoBatchRequest.OperationType type;
+        private Long id;
+        private int status;
+        private TodoResponse todo;
+        private String error;
+        
+        public Result() {}
+        
+        public Result(int index, TodoBatchRequest.OperationType type, Long id, int status,
+                      TodoResponse todo, String error) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+            this.status = status;
+            this.todo = todo;
+            this.error = error;
+        }
+        
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+        
+        // Getters and setters
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        
+        public TodoBatchRequest.OperationType getType() { return type; }
+        public void setType(TodoBatchRequest.OperationType type) { this.type = type; }
+        
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        
+        public int getStatus() { return status; }
+        public void setStatus(int status) { this.status = status; }
+        
+        public TodoResponse getTodo() { return todo; }
+        public void setTodo(TodoResponse todo) { this.todo = todo; }
+        
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
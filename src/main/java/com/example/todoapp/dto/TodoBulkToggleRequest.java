@@ -0,0 +1,52 @@
+package com.example.todoapp.dto;
+
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class TodoBulkToggleRequest {
+    
+    // Either explicit ids...
+    @Size(max = 10000, message = "At most 10000 ids can be toggled at once")
+    private List<Long> ids;
+    
+    // ...or a list filter (completed, pending, overdue, due-today, high-priority, urgent, all)
+    private String filter;
+    
+    // Target state; when omitted each todo is flipped
+    private Boolean completed;
+    
+    // Default constructor
+    public TodoBulkToggleRequest() {}
+    
+    // Constructor with all fields
+    public TodoBulkToggleRequest(List<Long> ids, String filter, Boolean completed) {
+        this.ids = ids;
+        this.filter = filter;
+        this.completed = completed;
+    }
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public String getFilter() {
+        return filter;
+    }
+    
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+    
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+}
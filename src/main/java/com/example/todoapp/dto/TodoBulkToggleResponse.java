@@ -0,0 +1,35 @@
+package com.example.todoapp.dto;
+
+import java.util.List;
+
+public class TodoBulkToggleResponse {
+    
+    private int updated;
+    private List<Long> ids;
+    
+    // Default constructor
+    public TodoBulkToggleResponse() {}
+    
+    // Constructor with all fields
+    public TodoBulkToggleResponse(int updated, List<Long> ids) {
+        this.updated = updated;
+        this.ids = ids;
+    }
+    
+    // Getters and Setters
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A committed change as pushed to event stream subscribers: the todo id, the
+ * operation and only the fields it changed (every field for a create, none for
+ * a delete). Field names match the todo JSON so clients can merge them in place.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoChangeMessage {
+    
+    private long sequence;
+    private Long id;
+    private TodoChangedEvent.Type operation;
+    private Map<String, Object> changes;
+    
+    // Default constructor
+    public TodoChangeMessage() {}
+    
+    // Constructor with all fields
+    public TodoChangeMessage(long sequence, Long id, TodoChangedEvent.Type operation, Map<String, Object> changes) {
+        this.sequence = sequence;
+        this.id = id;
+        this.operation = operation;
+        this.changes = changes;
+    }
+    
+    public static TodoChangeMessage of(long sequence, TodoChangedEvent event) {
+        Map<String, Object> changes = null;
+        if (event.getTodo() != null) {
+            changes = fields(event.getTodo());
+            // A created todo has no prior state, so all of its fields count as changed
+            if (event.getBefore() != null) {
+                Map<String, Object> before = fields(event.getBefore());
+                changes.entrySet().removeIf(field -> Objects.equals(before.get(field.getKey()), field.getValue()));
+            }
+        }
+        return new TodoChangeMessage(sequence, event.getTodoId(), event.getType(), changes);
+    }
+    
+    private static Map<String, Object> fields(TodoSnapshot todo) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("description", todo.getDescription());
+        fields.put("startDate", todo.getStartDate());
+        fields.put("endDate", todo.getEndDate());
+        fields.put("priority", todo.getPriority());
+        fields.put("comments", todo.getComments());
+        fields.put("collaborators", todo.getCollaborators());
+        fields.put("completed", todo.isCompleted());
+        fields.put("createdAt", todo.getCreatedAt());
+        fields.put("updatedAt", todo.getUpdatedAt());
+        return fields;
+    }
+    
+    // Getters and Setters
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public TodoChangedEvent.Type getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(TodoChangedEvent.Type operation) {
+        this.operation = operation;
+    }
+    
+    public Map<String, Object> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(Map<String, Object> changes) {
+        this.changes = changes;
+    }
+}
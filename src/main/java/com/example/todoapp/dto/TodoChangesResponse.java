@@ -0,0 +1,71 @@
+package com.example.todoapp.dto;
+
+import java.util.List;
+
+public class TodoChangesResponse {
+    
+    private List<TodoResponse> todos;
+    private List<Long> deletedIds;
+    private String nextToken;
+    private boolean hasMore;
+    private boolean resyncRequired;
+    
+    // Default constructor
+    public TodoChangesResponse() {}
+    
+    // Constructor with all fields
+    public TodoChangesResponse(List<TodoResponse> todos, List<Long> deletedIds, String nextToken,
+                               boolean hasMore, boolean resyncRequired) {
+        this.todos = todos;
+        this.deletedIds = deletedIds;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+        this.resyncRequired = resyncRequired;
+    }
+    
+    // The token predates the tombstone retention; the client must discard its copy and sync from scratch
+    public static TodoChangesResponse resync() {
+        return new TodoChangesResponse(List.of(), List.of(), null, false, true);
+    }
+    
+    // Getters and Setters
+    public List<TodoResponse> getTodos() {
+        return todos;
+    }
+    
+    public void setTodos(List<TodoResponse> todos) {
+        this.todos = todos;
+    }
+    
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+    
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+    
+    public String getNextToken() {
+        return nextToken;
+    }
+    
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+    
+    public void setResyncRequired(boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoImportStatus {
+    
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    private String id;
+    private String format;
+    private State state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private String failure;
+    private List<RowError> errors;
+    
+    // Default constructor
+    public TodoImportStatus() {}
+    
+    public TodoImportStatus(String id, String format, State state, Instant startedAt, Instant finishedAt,
+                            long rowsRead, long imported, long rejected, String failure, List<RowError> errors) {
+        this.id = id;
+        this.format = format;
+        this.state = state;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.failure = failure;
+        this.errors = errors;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    public void setState(State state) {
+        this.state = state;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public String getFailure() {
+        return failure;
+    }
+    
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    // Why a data row (1-based, header excluded) was not imported
+    public static class RowError {
+        private long row;
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+        
+        // Getters and setters
+        public long getRow() { return row; }
+        public void setRow(long row) { this.row = row; }
+        
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
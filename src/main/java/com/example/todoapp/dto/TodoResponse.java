@@ -58,6 +58,11 @@ public class TodoResponse {
     
     // Static factory method
     public static TodoResponse from(Todo todo) {
+        return from(todo, LocalDate.now());
+    }
+    
+    // Mapping a list with one `today` reads the clock once instead of three times per row
+    public static TodoResponse from(Todo todo, LocalDate today) {
         return new TodoResponse(
             todo.getId(),
             todo.getDescription(),
@@ -69,27 +74,27 @@ public class TodoResponse {
             todo.getCompleted(),
             todo.getCreatedAt(),
             todo.getUpdatedAt(),
-            isOverdue(todo),
-            isDueToday(todo),
-            isDueSoon(todo, 3) // Due within 3 days
+            isOverdue(todo, today),
+            isDueToday(todo, today),
+            isDueSoon(todo, today, 3) // Due within 3 days
         );
     }
     
     // Helper methods for computed fields
-    private static Boolean isOverdue(Todo todo) {
+    private static Boolean isOverdue(Todo todo, LocalDate today) {
         return todo.getEndDate() != null && 
-               todo.getEndDate().isBefore(LocalDate.now()) && 
+               todo.getEndDate().isBefore(today) && 
                !todo.getCompleted();
     }
     
-    private static Boolean isDueToday(Todo todo) {
+    private static Boolean isDueToday(Todo todo, LocalDate today) {
         return todo.getEndDate() != null && 
-               todo.getEndDate().equals(LocalDate.now());
+               todo.getEndDate().equals(today);
     }
     
-    private static Boolean isDueSoon(Todo todo, int days) {
+    private static Boolean isDueSoon(Todo todo, LocalDate today, int days) {
         return todo.getEndDate() != null && 
-               todo.getEndDate().isBefore(LocalDate.now().plusDays(days + 1)) && 
+               todo.getEndDate().isBefore(today.plusDays(days + 1)) && 
                !todo.getCompleted();
     }
     
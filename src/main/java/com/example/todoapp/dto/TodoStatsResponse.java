@@ -0,0 +1,91 @@
+package com.example.todoapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class TodoStatsResponse {
+    
+    private long total;
+    private long completed;
+    private long pending;
+    private long overdue;
+    private long dueToday;
+    private Map<String, Long> byPriority;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime reconciledAt;
+    
+    // Default constructor
+    public TodoStatsResponse() {}
+    
+    // Constructor with all fields
+    public TodoStatsResponse(long total, long completed, long pending, long overdue, long dueToday,
+                             Map<String, Long> byPriority, LocalDateTime reconciledAt) {
+        this.total = total;
+        this.completed = completed;
+        this.pending = pending;
+        this.overdue = overdue;
+        this.dueToday = dueToday;
+        this.byPriority = byPriority;
+        this.reconciledAt = reconciledAt;
+    }
+    
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+    
+    public long getPending() {
+        return pending;
+    }
+    
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+    
+    public long getOverdue() {
+        return overdue;
+    }
+    
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+    
+    public long getDueToday() {
+        return dueToday;
+    }
+    
+    public void setDueToday(long dueToday) {
+        this.dueToday = dueToday;
+    }
+    
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+    
+    public void setByPriority(Map<String, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+    
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+    
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.entity.Todo;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// List-view projection: no comments and at most DESCRIPTION_LENGTH characters of description.
+// Built by JPQL constructor expressions, so the full TEXT columns are never read or hydrated.
+public class TodoSummary {
+    
+    public static final int DESCRIPTION_LENGTH = 200;
+    
+    // One character more than is shown, to tell whether the description was cut
+    public static final int DESCRIPTION_FETCH_LENGTH = DESCRIPTION_LENGTH + 1;
+    
+    private Long id;
+    private String description;
+    private Boolean descriptionTruncated;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+    
+    private Todo.Priority priority;
+    private String collaborators;
+    private Boolean completed;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    // Computed fields
+    private Boolean isOverdue;
+    private Boolean isDueToday;
+    private Boolean isDueSoon;
+    
+    // Default constructor
+    public TodoSummary() {}
+    
+    // Constructor used by the summary queries; descriptionPrefix is at most DESCRIPTION_FETCH_LENGTH long.
+    // The computed fields stay unset until withDueFlags, so a whole list shares one `today`
+    public TodoSummary(Long id, String descriptionPrefix, LocalDate startDate, LocalDate endDate,
+                       Todo.Priority priority, String collaborators, Boolean completed,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.descriptionTruncated = descriptionPrefix != null && descriptionPrefix.length() > DESCRIPTION_LENGTH;
+        this.description = descriptionTruncated ? descriptionPrefix.substring(0, DESCRIPTION_LENGTH) : descriptionPrefix;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.priority = priority;
+        this.collaborators = collaborators;
+        this.completed = completed;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    public TodoSummary withDueFlags(LocalDate today) {
+        boolean pending = !Boolean.TRUE.equals(completed);
+        this.isOverdue = endDate != null && endDate.isBefore(today) && pending;
+        this.isDueToday = endDate != null && endDate.equals(today);
+        this.isDueSoon = endDate != null && endDate.isBefore(today.plusDays(4)) && pending; // Due within 3 days
+        return this;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Boolean getDescriptionTruncated() {
+        return descriptionTruncated;
+    }
+    
+    public void setDescriptionTruncated(Boolean descriptionTruncated) {
+        this.descriptionTruncated = descriptionTruncated;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(Todo.Priority priority) {
+        this.priority = priority;
+    }
+    
+    public String getCollaborators() {
+        return collaborators;
+    }
+    
+    public void setCollaborators(String collaborators) {
+        this.collaborators = collaborators;
+    }
+    
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Boolean getIsOverdue() {
+        return isOverdue;
+    }
+    
+    public void setIsOverdue(Boolean isOverdue) {
+        this.isOverdue = isOverdue;
+    }
+    
+    public Boolean getIsDueToday() {
+        return isDueToday;
+    }
+    
+    public void setIsDueToday(Boolean isDueToday) {
+        this.isDueToday = isDueToday;
+    }
+    
+    public Boolean getIsDueSoon() {
+        return isDueSoon;
+    }
+    
+    public void setIsDueSoon(Boolean isDueSoon) {
+        this.isDueSoon = isDueSoon;
+    }
+}
@@ -112,4 +112,29 @@ public class TodoUpdateRequest {
     public void setVersion(Long version) {
         this.version = version;
     }
+    
+    // Copy the provided (non-null) fields onto an existing entity
+    public void applyTo(Todo todo) {
+        if (description != null) {
+            todo.setDescription(description);
+        }
+        if (startDate != null) {
+            todo.setStartDate(startDate);
+        }
+        if (endDate != null) {
+            todo.setEndDate(endDate);
+        }
+        if (priority != null) {
+            todo.setPriority(priority);
+        }
+        if (comments != null) {
+            todo.setComments(comments);
+        }
+        if (collaborators != null) {
+            todo.setCollaborators(collaborators);
+        }
+        if (completed != null) {
+            todo.setCompleted(completed);
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.example.todoapp.entity;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A completed todo moved out of the live table by the archive job. Same
+ * columns and id as the todo it was, plus when it was archived; normalized
+ * collaborator names are not kept and are rebuilt if the todo is restored.
+ */
+@Entity
+@Table(name = "todos_archive",
+       indexes = @Index(name = "idx_todos_archive_archived_at", columnList = "archived_at, id"))
+public class ArchivedTodo {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+    
+    @Column(name = "start_date")
+    private LocalDate startDate;
+    
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private Todo.Priority priority;
+    
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+    
+    @Column(name = "comments", columnDefinition = "TEXT")
+    private String comments;
+    
+    @Column(name = "collaborators")
+    private String collaborators;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed")
+    private Boolean completed;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    protected ArchivedTodo() {
+    }
+    
+    // Detached, never-persisted Todo carrying this state; the timestamps are restored last
+    // because the setters stamp updatedAt
+    public Todo toTodo() {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setDescription(description);
+        todo.setStartDate(startDate);
+        todo.setEndDate(endDate);
+        todo.setPriority(priority);
+        todo.setComments(comments);
+        todo.setCollaborators(collaborators);
+        todo.setCompleted(completed);
+        todo.setCreatedAt(createdAt);
+        todo.setUpdatedAt(updatedAt);
+        return todo;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+    
+    public Integer getPriorityRank() {
+        return priorityRank;
+    }
+    
+    public String getComments() {
+        return comments;
+    }
+    
+    public String getCollaborators() {
+        return collaborators;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.todoapp.entity;
+
+import javax.persistence.*;
+
+/**
+ * Single-row counter behind the API ETags. Each instance adds its own commits
+ * to it periodically and reads it back to learn about everyone else's (see
+ * TodoCollectionVersion).
+ */
+@Entity
+@Table(name = "todo_collection_version")
+public class CollectionVersion {
+    
+    public static final Long ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    // Constructors
+    protected CollectionVersion() {
+    }
+    
+    public CollectionVersion(Long id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+}
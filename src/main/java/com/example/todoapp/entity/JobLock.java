@@ -0,0 +1,46 @@
+package com.example.todoapp.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a scheduled job. The instance that moves {@code lockedUntil} into
+ * the future runs the job; the others skip that run.
+ */
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+    
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+    
+    // Constructors
+    protected JobLock() {
+    }
+    
+    public JobLock(String name, LocalDateTime lockedUntil, String lockedBy) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+        this.lockedBy = lockedBy;
+    }
+    
+    // Getters
+    public String getName() {
+        return name;
+    }
+    
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public String getLockedBy() {
+        return lockedBy;
+    }
+}
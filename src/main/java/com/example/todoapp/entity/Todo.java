@@ -1,13 +1,24 @@
 package com.example.todoapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos",
+       indexes = {
+           @Index(name = "idx_todos_updated_at", columnList = "updated_at, id"),
+           // "Most urgent pending first" reads this index in order and stops after a page
+           @Index(name = "idx_todos_completed_priority_rank", columnList = "completed, priority_rank, end_date"),
+           // Everything by priority then end date, with no completion filter in front
+           @Index(name = "idx_todos_priority_rank_end_date", columnList = "priority_rank, end_date")
+       })
 public class Todo {
     
     @Id
@@ -29,12 +40,26 @@ public class Todo {
     @Column(name = "priority")
     private Priority priority;
     
+    // Sort position derived from priority (see Priority.getRank), stored so ordering can use an index
+    @JsonIgnore
+    @Column(name = "priority_rank")
+    private Integer priorityRank = UNPRIORITIZED_RANK;
+    
     @Column(name = "comments", columnDefinition = "TEXT")
     private String comments;
     
     @Column(name = "collaborators")
     private String collaborators;
     
+    // Normalized collaborator names derived from `collaborators`, indexed for exact and prefix lookups
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "todo_collaborators",
+                     joinColumns = @JoinColumn(name = "todo_id"),
+                     indexes = @Index(name = "idx_todo_collaborators_name", columnList = "name, todo_id"))
+    @Column(name = "name", nullable = false, length = MAX_COLLABORATOR_NAME_LENGTH)
+    private Set<String> collaboratorNames = new LinkedHashSet<>();
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -44,8 +69,24 @@ public class Todo {
     @Column(name = "completed")
     private Boolean completed = false;
     
+    public static final int MAX_COLLABORATOR_NAME_LENGTH = 255;
+    
+    // Todos without a priority sort after every prioritized one
+    public static final int UNPRIORITIZED_RANK = 5;
+    
     public enum Priority {
-        LOW, MEDIUM, HIGH, URGENT
+        LOW(4), MEDIUM(3), HIGH(2), URGENT(1);
+        
+        private final int rank;
+        
+        Priority(int rank) {
+            this.rank = rank;
+        }
+        
+        // Ascending rank is most urgent first
+        public int getRank() {
+            return rank;
+        }
     }
     
     // Constructors
@@ -101,9 +142,18 @@ public class Todo {
     
     public void setPriority(Priority priority) {
         this.priority = priority;
+        this.priorityRank = priorityRank(priority);
         this.updatedAt = LocalDateTime.now();
     }
     
+    public Integer getPriorityRank() {
+        return priorityRank;
+    }
+    
+    public static int priorityRank(Priority priority) {
+        return priority == null ? UNPRIORITIZED_RANK : priority.getRank();
+    }
+    
     public String getComments() {
         return comments;
     }
@@ -120,6 +170,39 @@ public class Todo {
     public void setCollaborators(String collaborators) {
         this.collaborators = collaborators;
         this.updatedAt = LocalDateTime.now();
+        reindexCollaborators();
+    }
+    
+    public Set<String> getCollaboratorNames() {
+        return collaboratorNames;
+    }
+    
+    // Rebuild the normalized names from `collaborators` without touching updatedAt
+    public void reindexCollaborators() {
+        collaboratorNames.clear();
+        collaboratorNames.addAll(parseCollaborators(collaborators));
+    }
+    
+    // Split a free-form "Alice, Bob; Carol" list into normalized names
+    public static Set<String> parseCollaborators(String collaborators) {
+        Set<String> names = new LinkedHashSet<>();
+        if (collaborators == null) {
+            return names;
+        }
+        for (String part : collaborators.split("[,;]")) {
+            String name = normalizeCollaborator(part);
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+    
+    public static String normalizeCollaborator(String name) {
+        String normalized = name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_COLLABORATOR_NAME_LENGTH
+            ? normalized.substring(0, MAX_COLLABORATOR_NAME_LENGTH)
+            : normalized;
     }
     
     public LocalDateTime getCreatedAt() {
@@ -147,9 +230,15 @@ public class Todo {
         this.updatedAt = LocalDateTime.now();
     }
     
+    @PrePersist
+    public void prePersist() {
+        this.priorityRank = priorityRank(priority);
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.priorityRank = priorityRank(priority);
     }
     
     @Override
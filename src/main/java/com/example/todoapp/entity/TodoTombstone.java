@@ -0,0 +1,39 @@
+package com.example.todoapp.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when a todo is deleted, so incremental sync clients can
+ * learn about the deletion. Purged after the configured retention.
+ */
+@Entity
+@Table(name = "todo_tombstones",
+       indexes = @Index(name = "idx_todo_tombstones_deleted_at", columnList = "deleted_at, todo_id"))
+public class TodoTombstone {
+    
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    protected TodoTombstone() {
+    }
+    
+    public TodoTombstone(Long todoId, LocalDateTime deletedAt) {
+        this.todoId = todoId;
+        this.deletedAt = deletedAt;
+    }
+    
+    // Getters
+    public Long getTodoId() {
+        return todoId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
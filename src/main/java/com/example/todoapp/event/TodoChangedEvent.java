@@ -0,0 +1,91 @@
+package com.example.todoapp.event;
+
+import com.example.todoapp.entity.Todo;
+
+/**
+ * Published by the services whenever a todo is written. Listeners should use
+ * {@code @TransactionalEventListener(fallbackExecution = true)} so they only
+ * observe committed state, including writes made outside a transaction.
+ *
+ * <p>Each event carries the state before and after the change, so listeners
+ * that keep aggregates can apply the exact delta.
+ */
+public class TodoChangedEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        // Moved to or back from todos_archive; to the live table these look like a delete and a create
+        ARCHIVED, RESTORED
+    }
+    
+    private final Type type;
+    private final Long todoId;
+    private final TodoSnapshot before;
+    private final TodoSnapshot todo;
+    
+    private TodoChangedEvent(Type type, Long todoId, TodoSnapshot before, TodoSnapshot todo) {
+        this.type = type;
+        this.todoId = todoId;
+        this.before = before;
+        this.todo = todo;
+    }
+    
+    public static TodoChangedEvent created(Todo todo) {
+        return new TodoChangedEvent(Type.CREATED, todo.getId(), null, TodoSnapshot.of(todo));
+    }
+    
+    // `before` must be taken before the entity was modified
+    public static TodoChangedEvent updated(TodoSnapshot before, Todo todo) {
+        return new TodoChangedEvent(Type.UPDATED, todo.getId(), before, TodoSnapshot.of(todo));
+    }
+    
+    // For a todo whose completion was flipped in the database; the prior state is the inverse
+    public static TodoChangedEvent toggled(Todo todo) {
+        TodoSnapshot after = TodoSnapshot.of(todo);
+        return new TodoChangedEvent(Type.UPDATED, todo.getId(), after.withCompleted(!after.isCompleted()), after);
+    }
+    
+    public static TodoChangedEvent deleted(Todo todo) {
+        return deleted(TodoSnapshot.of(todo));
+    }
+    
+    public static TodoChangedEvent deleted(TodoSnapshot before) {
+        return new TodoChangedEvent(Type.DELETED, before.getId(), before, null);
+    }
+    
+    // An archived todo deleted for good; it already left the live table, so there is no prior live state
+    public static TodoChangedEvent deletedFromArchive(Long id) {
+        return new TodoChangedEvent(Type.DELETED, id, null, null);
+    }
+    
+    public static TodoChangedEvent archived(TodoSnapshot before) {
+        return new TodoChangedEvent(Type.ARCHIVED, before.getId(), before, null);
+    }
+    
+    public static TodoChangedEvent restored(Todo todo) {
+        return new TodoChangedEvent(Type.RESTORED, todo.getId(), null, TodoSnapshot.of(todo));
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getTodoId() {
+        return todoId;
+    }
+    
+    // State before the change, or null when the todo was just created
+    public TodoSnapshot getBefore() {
+        return before;
+    }
+    
+    // State after the change, or null when the todo no longer exists
+    public TodoSnapshot getTodo() {
+        return todo;
+    }
+    
+    @Override
+    public String toString() {
+        return "TodoChangedEvent{type=" + type + ", todoId=" + todoId + '}';
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.todoapp.event;
+
+import com.example.todoapp.entity.Todo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a todo's state, safe to hand to listeners that run after
+ * the owning persistence context has moved on.
+ */
+public final class TodoSnapshot {
+    
+    private final Long id;
+    private final String description;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Todo.Priority priority;
+    private final String comments;
+    private final String collaborators;
+    private final boolean completed;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    
+    private TodoSnapshot(Todo todo) {
+        this.id = todo.getId();
+        this.description = todo.getDescription();
+        this.startDate = todo.getStartDate();
+        this.endDate = todo.getEndDate();
+        this.priority = todo.getPriority();
+        this.comments = todo.getComments();
+        this.collaborators = todo.getCollaborators();
+        this.completed = Boolean.TRUE.equals(todo.getCompleted());
+        this.createdAt = todo.getCreatedAt();
+        this.updatedAt = todo.getUpdatedAt();
+    }
+    
+    private TodoSnapshot(TodoSnapshot other, boolean completed) {
+        this.id = other.id;
+        this.description = other.description;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.priority = other.priority;
+        this.comments = other.comments;
+        this.collaborators = other.collaborators;
+        this.completed = completed;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+    
+    public static TodoSnapshot of(Todo todo) {
+        return new TodoSnapshot(todo);
+    }
+    
+    // Copy differing only in completion, for reconstructing state around a toggle
+    public TodoSnapshot withCompleted(boolean completed) {
+        return new TodoSnapshot(this, completed);
+    }
+    
+    // Detached, never-persisted Todo carrying this state; the timestamps are restored last
+    // because the setters stamp updatedAt
+    public Todo toTodo() {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setDescription(description);
+        todo.setStartDate(startDate);
+        todo.setEndDate(endDate);
+        todo.setPriority(priority);
+        todo.setComments(comments);
+        todo.setCollaborators(collaborators);
+        todo.setCompleted(completed);
+        todo.setCreatedAt(createdAt);
+        todo.setUpdatedAt(updatedAt);
+        return todo;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+    
+    public String getComments() {
+        return comments;
+    }
+    
+    public String getCollaborators() {
+        return collaborators;
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.todoapp.event;
+
+/**
+ * Published once by a bulk toggle that updated every todo matching a filter
+ * in one statement. Which todos changed is not known, so listeners refresh
+ * or invalidate whatever they derive from completion instead of applying
+ * per-todo changes.
+ */
+public class TodosBulkChangedEvent {
+    
+    private final String filter;
+    private final Boolean completed;
+    private final int updated;
+    
+    public TodosBulkChangedEvent(String filter, Boolean completed, int updated) {
+        this.filter = filter;
+        this.completed = completed;
+        this.updated = updated;
+    }
+    
+    public String getFilter() {
+        return filter;
+    }
+    
+    // Target state, or null when each todo was flipped
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+}
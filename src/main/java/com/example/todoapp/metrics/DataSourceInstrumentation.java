@@ -0,0 +1,34 @@
+package com.example.todoapp.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link StatementCountingDataSource} in front of the application's
+ * DataSource, whichever configuration declared it (Boot's pool, the replica
+ * router, or the reactive profile's pool). Only the bean named
+ * {@code dataSource} is wrapped, so pools behind a router are not counted twice.
+ */
+@Component
+public class DataSourceInstrumentation implements BeanPostProcessor {
+    
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+    
+    private final boolean enabled;
+    
+    public DataSourceInstrumentation(@Value("${app.sql-stats.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource && DATA_SOURCE_BEAN.equals(beanName)
+                && !(bean instanceof StatementCountingDataSource)) {
+            return new StatementCountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.todoapp.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the endpoint tag to Spring Data's {@code spring.data.repository.invocations}
+ * timer, so repository time can be attributed to the request that caused it.
+ */
+@Component
+public class EndpointRepositoryTagsProvider implements RepositoryTagsProvider {
+    
+    private final RepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+    
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(defaults.repositoryTags(invocation)).and(EndpointTags.current());
+    }
+}
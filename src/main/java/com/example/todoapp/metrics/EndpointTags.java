@@ -0,0 +1,45 @@
+package com.example.todoapp.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the "endpoint" tag shared by the service, repository and Hibernate
+ * metrics: the HTTP method plus the matched route pattern of the request on
+ * the current thread, e.g. "GET /api/v1/todos/{id}". Work outside a request
+ * (startup jobs, streaming writers on async threads) is tagged "none".
+ */
+public final class EndpointTags {
+    
+    public static final String KEY = "endpoint";
+    public static final String NONE = "none";
+    
+    private EndpointTags() {
+    }
+    
+    public static Tag current() {
+        return Tag.of(KEY, currentEndpoint());
+    }
+    
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NONE;
+        }
+        return endpointOf(((ServletRequestAttributes) attributes).getRequest());
+    }
+    
+    public static String endpointOf(HttpServletRequest request) {
+        // Use the route pattern, never the raw URI, to keep tag cardinality bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return NONE;
+        }
+        return request.getMethod() + " " + pattern;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.todoapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Counts SQL statements, entity loads and flushes per endpoint. Hibernate's
+ * own statistics (hibernate.* meters) are session-factory wide; these hooks
+ * run on the request thread and so can carry the endpoint tag.
+ */
+@Component
+public class HibernateEndpointMetrics extends EmptyInterceptor
+        implements StatementInspector, HibernatePropertiesCustomizer {
+    
+    private final transient MeterRegistry meterRegistry;
+    
+    public HibernateEndpointMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        counter("todo.hibernate.statements", "SQL statements prepared").increment();
+        return sql;
+    }
+    
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        Counter.builder("todo.hibernate.entity.loads")
+            .description("Entities loaded")
+            .tag(EndpointTags.KEY, EndpointTags.currentEndpoint())
+            .tag("entity", entity.getClass().getSimpleName())
+            .register(meterRegistry)
+            .increment();
+        return false;
+    }
+    
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void preFlush(Iterator entities) {
+        counter("todo.hibernate.flushes", "Session flushes").increment();
+    }
+    
+    private Counter counter(String name, String description) {
+        return Counter.builder(name)
+            .description(description)
+            .tag(EndpointTags.KEY, EndpointTags.currentEndpoint())
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todoapp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the todo services as
+ * {@code todo.service.invocations}, tagged by class, method, outcome exception
+ * and endpoint. Percentiles and histogram buckets come from
+ * {@code management.metrics.distribution}.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    
+    static final String METRIC_NAME = "todo.service.invocations";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Around("execution(public * com.example.todoapp.service.TodoService.*(..)) || " +
+            "execution(public * com.example.todoapp.service.TodoServiceModern.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                .description("Todo service method latency")
+                .tags(Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                              "method", joinPoint.getSignature().getName(),
+                              "exception", exception))
+                .tag(EndpointTags.KEY, EndpointTags.currentEndpoint())
+                .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todoapp.metrics;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JDBC work done for one HTTP request: statements executed, rows fetched and
+ * time spent in the driver. Filled in by {@link StatementCountingDataSource}
+ * on whichever thread runs the request's work, read by
+ * {@link SqlRequestStatsFilter} when the request completes.
+ */
+public final class SqlRequestStats {
+    
+    public static final String ATTRIBUTE = SqlRequestStats.class.getName();
+    
+    // Distinct statements tracked per request; enough to spot repeats without growing unbounded
+    private static final int MAX_TRACKED_STATEMENTS = 100;
+    
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final Map<String, LongAdder> executions = new ConcurrentHashMap<>();
+    
+    // The stats of the request on the current thread, or null outside a request
+    public static SqlRequestStats current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (SqlRequestStats) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+    
+    void statementExecuted(String sql, long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+        if (sql != null && (executions.size() < MAX_TRACKED_STATEMENTS || executions.containsKey(sql))) {
+            executions.computeIfAbsent(sql, s -> new LongAdder()).increment();
+        }
+    }
+    
+    void rowFetched() {
+        rows.increment();
+    }
+    
+    void timeSpent(long elapsedNanos) {
+        nanos.add(elapsedNanos);
+    }
+    
+    public long getStatements() {
+        return statements.sum();
+    }
+    
+    public long getRows() {
+        return rows.sum();
+    }
+    
+    public Duration getDbTime() {
+        return Duration.ofNanos(nanos.sum());
+    }
+    
+    // SQL text -> times executed in this request
+    public Map<String, Long> getExecutions() {
+        Map<String, Long> counts = new HashMap<>();
+        executions.forEach((sql, count) -> counts.put(sql, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+    
+    // The statement executed most often, or null if none ran; a high count usually means an N+1
+    public Map.Entry<String, Long> mostRepeated() {
+        Map.Entry<String, Long> most = null;
+        for (Map.Entry<String, Long> entry : getExecutions().entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+    
+    // Server-Timing header value, e.g. db;desc="3 statements, 20 rows";dur=4.2
+    public String toServerTiming() {
+        return String.format(Locale.ROOT, "db;desc=\"%d statements, %d rows\";dur=%.1f",
+                             getStatements(), getRows(), nanos.sum() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.todoapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Collects {@link SqlRequestStats} for each request and, once the request has
+ * completed (after the async dispatch, for the CompletableFuture endpoints),
+ * records them per endpoint as {@code todo.sql.statements},
+ * {@code todo.sql.rows} and {@code todo.sql.time}.
+ *
+ * <p>Requests issuing more statements than their budget are logged and counted
+ * in {@code todo.sql.budget.exceeded}. Budgets are keyed by endpoint under
+ * {@code app.sql-budget.endpoints}, falling back to
+ * {@code app.sql-budget.default-statements} (0 means no budget). A statement
+ * repeated {@code repeated-statement-threshold} times within one request is
+ * logged as a likely N+1 and counted in {@code todo.sql.repeated}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SqlRequestStatsFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SqlRequestStatsFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultBudget;
+    private final int repeatedThreshold;
+    private final Map<String, Integer> budgets;
+    
+    public SqlRequestStatsFilter(MeterRegistry meterRegistry, Environment environment,
+                                 @Value("${app.sql-stats.enabled:true}") boolean enabled,
+                                 @Value("${app.sql-budget.default-statements:0}") int defaultBudget,
+                                 @Value("${app.sql-budget.repeated-statement-threshold:5}") int repeatedThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+        this.repeatedThreshold = repeatedThreshold;
+        this.budgets = Binder.get(environment)
+            .bind("app.sql-budget.endpoints", Bindable.mapOf(String.class, Integer.class))
+            .orElse(Collections.emptyMap());
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+    
+    // The CompletableFuture endpoints finish on the async dispatch; that is where the totals are final
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = (SqlRequestStats) request.getAttribute(SqlRequestStats.ATTRIBUTE);
+        if (stats == null) {
+            stats = new SqlRequestStats();
+            request.setAttribute(SqlRequestStats.ATTRIBUTE, stats);
+        }
+        
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                record(request, stats);
+            }
+        }
+    }
+    
+    private void record(HttpServletRequest request, SqlRequestStats stats) {
+        String endpoint = EndpointTags.endpointOf(request);
+        if (EndpointTags.NONE.equals(endpoint)) {
+            // Static resources and unmatched paths; nothing to attribute the work to
+            return;
+        }
+        
+        long statements = stats.getStatements();
+        DistributionSummary.builder("todo.sql.statements")
+            .description("JDBC statements executed per request")
+            .tag(EndpointTags.KEY, endpoint)
+            .register(meterRegistry)
+            .record(statements);
+        DistributionSummary.builder("todo.sql.rows")
+            .description("Rows fetched per request")
+            .tag(EndpointTags.KEY, endpoint)
+            .register(meterRegistry)
+            .record(stats.getRows());
+        Timer.builder("todo.sql.time")
+            .description("Time spent in JDBC per request")
+            .tag(EndpointTags.KEY, endpoint)
+            .register(meterRegistry)
+            .record(stats.getDbTime());
+        
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (budget > 0 && statements > budget) {
+            counter("todo.sql.budget.exceeded", "Requests that issued more statements than their budget", endpoint)
+                .increment();
+            logger.warn("{} issued {} SQL statements (budget {}), {} rows in {} ms",
+                        endpoint, statements, budget, stats.getRows(), stats.getDbTime().toMillis());
+        }
+        
+        Map.Entry<String, Long> repeated = stats.mostRepeated();
+        if (repeatedThreshold > 0 && repeated != null && repeated.getValue() >= repeatedThreshold) {
+            counter("todo.sql.repeated", "Requests that ran the same statement repeatedly (likely N+1)", endpoint)
+                .increment();
+            logger.warn("{} ran the same statement {} times, likely an N+1: {}",
+                        endpoint, repeated.getValue(), repeated.getKey());
+        }
+    }
+    
+    private Counter counter(String name, String description, String endpoint) {
+        return Counter.builder(name)
+            .description(description)
+            .tag(EndpointTags.KEY, endpoint)
+            .register(meterRegistry);
+    }
+}
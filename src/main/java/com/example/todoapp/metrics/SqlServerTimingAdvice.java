@@ -0,0 +1,43 @@
+package com.example.todoapp.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a {@code Server-Timing} header with the request's JDBC totals to every
+ * response body written by a controller, e.g.
+ * {@code Server-Timing: db;desc="2 statements, 1 rows";dur=0.8}. Browsers show
+ * it in the network panel. The body is written last, so the totals are final;
+ * responses without a body (204, 304) carry no header.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SqlServerTimingAdvice implements ResponseBodyAdvice<Object> {
+    
+    private static final String HEADER = "Server-Timing";
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object stats = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(SqlRequestStats.ATTRIBUTE);
+            if (stats != null) {
+                response.getHeaders().add(HEADER, ((SqlRequestStats) stats).toServerTiming());
+            }
+        }
+        return body;
+    }
+}
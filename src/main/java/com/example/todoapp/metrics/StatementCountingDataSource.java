@@ -0,0 +1,167 @@
+package com.example.todoapp.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps connections handed out during an HTTP request so that every executed
+ * statement, every fetched row and the time spent in the driver are added to
+ * the request's {@link SqlRequestStats}. Connections taken outside a request
+ * (startup jobs, schedulers) are returned untouched.
+ *
+ * <p>Statements are counted per round trip: a JDBC batch is one statement.
+ * Time covers execute calls and {@code ResultSet.next()}, i.e. waiting on the
+ * database and the network, not mapping rows to entities.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+    
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+    
+    private static Connection instrument(Connection connection) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, stats));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                                          new Class<?>[] {type}, handler);
+    }
+    
+    private abstract static class Handler implements InvocationHandler {
+        
+        final Object target;
+        
+        Handler(Object target) {
+            this.target = target;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+        
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+        
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+    
+    private static final class ConnectionHandler extends Handler {
+        
+        private final SqlRequestStats stats;
+        
+        ConnectionHandler(Connection target, SqlRequestStats stats) {
+            super(target);
+            this.stats = stats;
+        }
+        
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (result instanceof Statement) {
+                // prepareStatement/prepareCall carry the SQL; createStatement gets it on execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler(result, sql, stats));
+            }
+            return result;
+        }
+    }
+    
+    private static final class StatementHandler extends Handler {
+        
+        private final String preparedSql;
+        private final SqlRequestStats stats;
+        
+        StatementHandler(Object target, String preparedSql, SqlRequestStats stats) {
+            super(target);
+            this.preparedSql = preparedSql;
+            this.stats = stats;
+        }
+        
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                long started = System.nanoTime();
+                try {
+                    return wrap(call(method, args));
+                } finally {
+                    stats.statementExecuted(sql, System.nanoTime() - started);
+                }
+            }
+            if (name.equals("getResultSet")) {
+                return wrap(call(method, args));
+            }
+            return call(method, args);
+        }
+        
+        private Object wrap(Object result) {
+            return result instanceof ResultSet ? proxy(ResultSet.class, new ResultSetHandler(result, stats)) : result;
+        }
+    }
+    
+    private static final class ResultSetHandler extends Handler {
+        
+        private final SqlRequestStats stats;
+        
+        ResultSetHandler(Object target, SqlRequestStats stats) {
+            super(target);
+            this.stats = stats;
+        }
+        
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            if (!method.getName().equals("next")) {
+                return call(method, args);
+            }
+            long started = System.nanoTime();
+            try {
+                Object more = call(method, args);
+                if (Boolean.TRUE.equals(more)) {
+                    stats.rowFetched();
+                }
+                return more;
+            } finally {
+                stats.timeSpent(System.nanoTime() - started);
+            }
+        }
+    }
+}
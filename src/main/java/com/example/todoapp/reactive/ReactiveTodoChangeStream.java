@@ -0,0 +1,131 @@
+package com.example.todoapp.reactive;
+
+import com.example.todoapp.dto.TodoChangeMessage;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive counterpart of {@code TodoChangeBroadcaster}: the same "todo" and
+ * "resync" events, fanned out through a multicast sink so that idle
+ * subscribers cost a buffer rather than a thread.
+ *
+ * <p>Each subscriber buffers at most {@code app.events.buffer-size} messages
+ * while its connection cannot keep up. On overflow it receives a single
+ * "resync" event and the stream ends; the browser's EventSource reconnects
+ * and the client reloads.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveTodoChangeStream {
+    
+    private static final String CHANGE_EVENT = "todo";
+    private static final String RESYNC_EVENT = "resync";
+    
+    // Sink markers; everything else emitted is a TodoChangeMessage
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESYNC = new Object();
+    
+    private final Sinks.Many<Object> sink = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter resyncs;
+    
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    
+    public ReactiveTodoChangeStream(MeterRegistry meterRegistry,
+                                    @Value("${app.events.buffer-size:256}") int bufferSize,
+                                    @Value("${app.events.max-subscribers:1000}") int maxSubscribers,
+                                    @Value("${app.events.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        
+        meterRegistry.gauge("todo.events.subscribers", sink, Sinks.Many::currentSubscriberCount);
+        this.resyncs = Counter.builder("todo.events.resyncs")
+            .description("Subscribers whose backlog overflowed and were told to resync")
+            .register(meterRegistry);
+    }
+    
+    public Flux<ServerSentEvent<Object>> subscribe() {
+        if (sink.currentSubscriberCount() >= maxSubscribers) {
+            return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream subscribers"));
+        }
+        return sink.asFlux()
+            .onBackpressureBuffer(bufferSize)
+            .map(this::toEvent)
+            .onErrorResume(Exceptions::isOverflow, ex -> {
+                // Too far behind to catch up: have the client reload
+                resyncs.increment();
+                return Flux.just(ServerSentEvent.builder()
+                    .event(RESYNC_EVENT)
+                    .data((Object) Collections.emptyMap())
+                    .build());
+            })
+            .take(timeout);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        emit(TodoChangeMessage.of(sequence.incrementAndGet(), event));
+    }
+    
+    // Per-todo messages are not available for a bulk toggle, so every subscriber reloads
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        emit(RESYNC);
+    }
+    
+    // Comments keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedRateString = "${app.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        emit(HEARTBEAT);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sink.tryEmitComplete();
+    }
+    
+    // Commits and heartbeats arrive on different threads; the sink needs serialized emission
+    private synchronized void emit(Object item) {
+        sink.tryEmitNext(item);
+    }
+    
+    private ServerSentEvent<Object> toEvent(Object item) {
+        if (item == HEARTBEAT) {
+            return ServerSentEvent.builder().comment("heartbeat").build();
+        }
+        if (item == RESYNC) {
+            return ServerSentEvent.builder().event(RESYNC_EVENT).data((Object) Collections.emptyMap()).build();
+        }
+        TodoChangeMessage message = (TodoChangeMessage) item;
+        return ServerSentEvent.builder()
+            .id(String.valueOf(message.getSequence()))
+            .event(CHANGE_EVENT)
+            .data((Object) message)
+            .build();
+    }
+}
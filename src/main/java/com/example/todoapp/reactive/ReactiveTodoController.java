@@ -0,0 +1,206 @@
+package com.example.todoapp.reactive;
+
+import com.example.todoapp.dto.CursorPageResponse;
+import com.example.todoapp.dto.TodoBatchRequest;
+import com.example.todoapp.dto.TodoBatchResponse;
+import com.example.todoapp.dto.TodoBulkToggleRequest;
+import com.example.todoapp.dto.TodoBulkToggleResponse;
+import com.example.todoapp.dto.TodoChangesResponse;
+import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.dto.TodoStatsResponse;
+import com.example.todoapp.dto.TodoUpdateRequest;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.service.TodoBatchService;
+import com.example.todoapp.service.TodoChangeFeedService;
+import com.example.todoapp.service.TodoServiceModern;
+import com.example.todoapp.stats.TodoStatistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * WebFlux implementation of {@code /api/v1/todos}, active under the
+ * {@code reactive} profile in place of {@code TodoRestControllerModern}.
+ *
+ * <p>Reads and single-row writes go through R2DBC. List endpoints return
+ * {@link Flux}: as {@code application/x-ndjson} every row is written as it is
+ * read, paced by the client's demand; as JSON the rows are collected into an
+ * array. Batch, bulk toggle and the change feed still need JPA and run on the
+ * bounded elastic scheduler.
+ */
+@RestController
+@RequestMapping("/api/v1/todos")
+@CrossOrigin(origins = "*")
+@Validated
+@Profile("reactive")
+public class ReactiveTodoController {
+    
+    private final ReactiveTodoService todoService;
+    private final ReactiveTodoChangeStream changeStream;
+    private final TodoServiceModern blockingTodoService;
+    private final TodoBatchService batchService;
+    private final TodoStatistics statistics;
+    private final TodoChangeFeedService changeFeedService;
+    
+    public ReactiveTodoController(ReactiveTodoService todoService, ReactiveTodoChangeStream changeStream,
+                                  TodoServiceModern blockingTodoService, TodoBatchService batchService,
+                                  TodoStatistics statistics, TodoChangeFeedService changeFeedService) {
+        this.todoService = todoService;
+        this.changeStream = changeStream;
+        this.blockingTodoService = blockingTodoService;
+        this.batchService = batchService;
+        this.statistics = statistics;
+        this.changeFeedService = changeFeedService;
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<TodoResponse>> createTodo(@Valid @RequestBody TodoCreateRequest request) {
+        return todoService.createTodo(request)
+            .map(todo -> ResponseEntity.status(HttpStatus.CREATED).body(TodoResponse.from(todo)));
+    }
+    
+    @GetMapping
+    public Mono<Page<TodoResponse>> getAllTodos(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size) {
+        return todoService.getTodos(search, filter, page, size)
+            .map(todos -> todos.map(TodoResponse::from));
+    }
+    
+    // Whole result set, one JSON object per line, read from the database as the client consumes it
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TodoResponse> streamAllTodos(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter) {
+        return todoService.streamTodos(search, filter).map(TodoResponse::from);
+    }
+    
+    // Keyset pagination: pass `limit` (and `after` from the previous page's nextCursor)
+    @GetMapping(params = "limit")
+    public Mono<CursorPageResponse<TodoResponse>> getAllTodosByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(100) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return todoService.getTodosAfter(search, filter, after, limit, count)
+            .map(todos -> todos.map(TodoResponse::from));
+    }
+    
+    // Multi-get: GET /api/v1/todos?ids=1,2,3 resolves with a single IN query
+    @GetMapping(params = "ids")
+    public Flux<TodoResponse> getTodosByIds(@RequestParam @Size(max = 1000) List<Long> ids) {
+        return todoService.getTodosByIds(ids).map(TodoResponse::from);
+    }
+    
+    // Mixed create/update/delete operations with a result per item
+    @PostMapping("/batch")
+    public Mono<TodoBatchResponse> executeBatch(@Valid @RequestBody TodoBatchRequest request) {
+        return blocking(() -> batchService.execute(request));
+    }
+    
+    @GetMapping("/stats")
+    public Mono<TodoStatsResponse> getStats() {
+        // Normally answered from memory, but the first call reconciles against the database
+        return blocking(statistics::getStats);
+    }
+    
+    // Committed changes as Server-Sent Events: "todo" per change, "resync" when the client fell behind
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges() {
+        return changeStream.subscribe();
+    }
+    
+    // Todos changed and ids deleted since the token; omit `since` for a first full sync
+    @GetMapping("/changes")
+    public Mono<TodoChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+        return blocking(() -> changeFeedService.getChanges(since, limit));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<TodoResponse> getTodoById(@PathVariable @Min(1) Long id) {
+        return todoService.getTodoById(id).map(TodoResponse::from);
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<TodoResponse> updateTodo(
+            @PathVariable @Min(1) Long id,
+            @Valid @RequestBody TodoUpdateRequest request) {
+        return todoService.updateTodo(id, request).map(TodoResponse::from);
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTodo(@PathVariable @Min(1) Long id) {
+        return todoService.deleteTodo(id)
+            .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+    
+    @PatchMapping("/{id}/toggle")
+    public Mono<TodoResponse> toggleTodoCompletion(@PathVariable @Min(1) Long id) {
+        return todoService.toggleTodoCompletion(id).map(TodoResponse::from);
+    }
+    
+    // Bulk toggle: {"ids": [...]} or {"filter": "pending", "completed": true} in one statement
+    @PatchMapping("/toggle")
+    public Mono<TodoBulkToggleResponse> toggleTodos(@Valid @RequestBody TodoBulkToggleRequest request) {
+        return blocking(() -> blockingTodoService.toggleTodos(request));
+    }
+    
+    @GetMapping("/priority/{priority}")
+    public Flux<TodoResponse> getTodosByPriority(@PathVariable Todo.Priority priority) {
+        return todoService.getTodosByPriority(priority).map(TodoResponse::from);
+    }
+    
+    @GetMapping("/collaborator/{collaborator}")
+    public Flux<TodoResponse> getTodosByCollaborator(
+            @PathVariable String collaborator,
+            @RequestParam(defaultValue = "exact") String match) {
+        Flux<Todo> todos = "prefix".equalsIgnoreCase(match)
+            ? todoService.getTodosByCollaboratorPrefix(collaborator)
+            : todoService.getTodosByCollaborator(collaborator);
+        return todos.map(TodoResponse::from);
+    }
+    
+    @GetMapping("/date-range")
+    public Flux<TodoResponse> getTodosByDateRange(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return todoService.getTodosByDateRange(startDate, endDate).map(TodoResponse::from);
+    }
+    
+    @GetMapping("/overdue")
+    public Flux<TodoResponse> getOverdueTodos() {
+        return todoService.getOverdueTodos().map(TodoResponse::from);
+    }
+    
+    @GetMapping("/due-today")
+    public Flux<TodoResponse> getTodosDueToday() {
+        return todoService.getTodosDueToday().map(TodoResponse::from);
+    }
+    
+    // JPA-backed work must not run on an event-loop thread
+    private static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todoapp.reactive;
+
+import com.example.todoapp.entity.Todo;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Non-blocking counterpart of TodoRepository; queries are plain SQL over the same tables
+public interface ReactiveTodoRepository extends ReactiveCrudRepository<TodoRow, Long> {
+    
+    Flux<TodoRow> findByPriority(Todo.Priority priority);
+    
+    @Query("SELECT * FROM todos WHERE start_date >= :startDate AND end_date <= :endDate")
+    Flux<TodoRow> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT * FROM todos WHERE end_date < :today AND completed = FALSE")
+    Flux<TodoRow> findOverdue(@Param("today") LocalDate today);
+    
+    @Query("SELECT * FROM todos WHERE end_date = :today")
+    Flux<TodoRow> findDueOn(@Param("today") LocalDate today);
+    
+    @Query("SELECT t.* FROM todos t JOIN todo_collaborators c ON c.todo_id = t.id WHERE c.name = :name")
+    Flux<TodoRow> findByCollaboratorName(@Param("name") String name);
+    
+    @Query("SELECT DISTINCT t.* FROM todos t JOIN todo_collaborators c ON c.todo_id = t.id " +
+           "WHERE c.name LIKE :pattern ESCAPE '!'")
+    Flux<TodoRow> findByCollaboratorNameLike(@Param("pattern") String pattern);
+    
+    // Same single-statement flip as TodoRepository.toggleCompleted
+    @Modifying
+    @Query("UPDATE todos SET completed = CASE WHEN completed = TRUE THEN FALSE ELSE TRUE END, " +
+           "updated_at = :now WHERE id = :id")
+    Mono<Integer> toggleCompleted(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,289 @@
+package com.example.todoapp.reactive;
+
+import com.example.todoapp.dto.CursorPageResponse;
+import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.dto.TodoUpdateRequest;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.service.CollaboratorQueries;
+import com.example.todoapp.service.TodoCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * R2DBC implementation of the operations behind the reactive v1 API.
+ *
+ * <p>Writes run in an R2DBC transaction and keep {@code todo_collaborators} in
+ * step, as the JPA element collection does on the servlet stack. Once a write
+ * commits the usual {@link TodoChangedEvent} is published, so the search index,
+ * caches, statistics, change feed and collection version stay correct whichever
+ * stack took the write. Those listeners block, so they run on the bounded
+ * elastic scheduler rather than on the event loop.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTodoService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTodoService.class);
+    
+    // Newest first, id breaking ties; the same order as the servlet list and cursor endpoints
+    private static final Sort LIST_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    
+    private final ReactiveTodoRepository todoRepository;
+    private final R2dbcEntityTemplate template;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public ReactiveTodoService(ReactiveTodoRepository todoRepository, R2dbcEntityTemplate template,
+                               DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                               ApplicationEventPublisher eventPublisher) {
+        this.todoRepository = todoRepository;
+        this.template = template;
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    public Mono<Todo> createTodo(TodoCreateRequest request) {
+        logger.debug("Creating new todo with description: {}", request.getDescription());
+        
+        return todoRepository.save(TodoRow.from(request.toEntity()))
+            .flatMap(row -> replaceCollaborators(row.getId(), row.getCollaborators()).thenReturn(row))
+            .as(transactionalOperator::transactional)
+            .map(TodoRow::toTodo)
+            .flatMap(saved -> publish(TodoChangedEvent.created(saved)).thenReturn(saved))
+            .doOnNext(saved -> logger.info("Created todo with ID: {}", saved.getId()));
+    }
+    
+    // One page plus the total, the same shape as the servlet endpoint
+    public Mono<Page<Todo>> getTodos(String search, String filter, int page, int size) {
+        logger.debug("Fetching todos with search: {}, filter: {}, page: {}, size: {}", search, filter, page, size);
+        
+        Criteria criteria = buildCriteria(search, filter);
+        PageRequest pageable = PageRequest.of(page, size, LIST_SORT);
+        Mono<List<Todo>> content = select(Query.query(criteria).with(pageable)).collectList();
+        Mono<Long> total = template.count(Query.query(criteria), TodoRow.class);
+        return Mono.zip(content, total)
+            .<Page<Todo>>map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+    
+    // Every matching row, produced only as fast as the subscriber requests them
+    public Flux<Todo> streamTodos(String search, String filter) {
+        return select(Query.query(buildCriteria(search, filter)).sort(LIST_SORT));
+    }
+    
+    public Mono<CursorPageResponse<Todo>> getTodosAfter(String search, String filter, String after,
+                                                        int limit, boolean includeCount) {
+        logger.debug("Fetching todos with search: {}, filter: {}, after: {}, limit: {}", search, filter, after, limit);
+        
+        Criteria criteria = buildCriteria(search, filter);
+        Criteria pageCriteria = criteria;
+        if (after != null && !after.isEmpty()) {
+            pageCriteria = criteria.and(keysetAfter(TodoCursor.decode(after)));
+        }
+        
+        // Fetch one extra row to learn whether another page exists
+        Mono<List<Todo>> rows = select(Query.query(pageCriteria).sort(LIST_SORT).limit(limit + 1)).collectList();
+        Mono<Long> total = includeCount ? template.count(Query.query(criteria), TodoRow.class) : Mono.just(-1L);
+        return Mono.zip(rows, total).map(result -> {
+            List<Todo> fetched = result.getT1();
+            boolean hasNext = fetched.size() > limit;
+            List<Todo> content = hasNext ? fetched.subList(0, limit) : fetched;
+            
+            String nextCursor = null;
+            if (hasNext) {
+                Todo last = content.get(content.size() - 1);
+                nextCursor = new TodoCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+            Long count = includeCount ? result.getT2() : null;
+            return new CursorPageResponse<>(content, nextCursor, hasNext, count);
+        });
+    }
+    
+    public Mono<Todo> getTodoById(Long id) {
+        logger.debug("Fetching todo with ID: {}", id);
+        
+        return todoRepository.findById(id)
+            .map(TodoRow::toTodo)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Todo not found with ID: " + id)));
+    }
+    
+    // One IN query; results follow the requested order and skip unknown ids
+    public Flux<Todo> getTodosByIds(List<Long> ids) {
+        logger.debug("Fetching {} todos by ID", ids.size());
+        
+        return todoRepository.findAllById(ids)
+            .collectMap(TodoRow::getId, TodoRow::toTodo)
+            .flatMapIterable(todosById -> orderedBy(ids, todosById));
+    }
+    
+    public Mono<Todo> updateTodo(Long id, TodoUpdateRequest request) {
+        logger.debug("Updating todo with ID: {}", id);
+        
+        return getTodoById(id)
+            .flatMap(existingTodo -> {
+                TodoSnapshot before = TodoSnapshot.of(existingTodo);
+                request.applyTo(existingTodo);
+                existingTodo.setUpdatedAt(LocalDateTime.now());
+                
+                Mono<Void> collaborators = request.getCollaborators() != null
+                    ? replaceCollaborators(id, existingTodo.getCollaborators())
+                    : Mono.empty();
+                return todoRepository.save(TodoRow.from(existingTodo))
+                    .then(collaborators)
+                    .thenReturn(Tuples.of(before, existingTodo));
+            })
+            .as(transactionalOperator::transactional)
+            .flatMap(change -> publish(TodoChangedEvent.updated(change.getT1(), change.getT2()))
+                .thenReturn(change.getT2()))
+            .doOnNext(updated -> logger.info("Updated todo with ID: {}", updated.getId()));
+    }
+    
+    public Mono<Void> deleteTodo(Long id) {
+        logger.debug("Deleting todo with ID: {}", id);
+        
+        return getTodoById(id)
+            .flatMap(todo -> deleteCollaborators(id)
+                .then(todoRepository.deleteById(id))
+                .thenReturn(todo))
+            .as(transactionalOperator::transactional)
+            .flatMap(todo -> publish(TodoChangedEvent.deleted(todo)))
+            .doOnSuccess(ignored -> logger.info("Deleted todo with ID: {}", id));
+    }
+    
+    public Mono<Todo> toggleTodoCompletion(Long id) {
+        logger.debug("Toggling completion for todo with ID: {}", id);
+        
+        // Single UPDATE flips the flag in the database, so concurrent clicks cannot lose a toggle
+        return todoRepository.toggleCompleted(id, LocalDateTime.now())
+            .flatMap(updated -> updated == 0
+                ? Mono.<Todo>error(new EntityNotFoundException("Todo not found with ID: " + id))
+                : getTodoById(id))
+            .as(transactionalOperator::transactional)
+            .flatMap(todo -> publish(TodoChangedEvent.toggled(todo)).thenReturn(todo));
+    }
+    
+    public Flux<Todo> getTodosByPriority(Todo.Priority priority) {
+        return todoRepository.findByPriority(priority).map(TodoRow::toTodo);
+    }
+    
+    public Flux<Todo> getTodosByDateRange(LocalDate startDate, LocalDate endDate) {
+        return todoRepository.findByDateRange(startDate, endDate).map(TodoRow::toTodo);
+    }
+    
+    public Flux<Todo> getOverdueTodos() {
+        return todoRepository.findOverdue(LocalDate.now()).map(TodoRow::toTodo);
+    }
+    
+    public Flux<Todo> getTodosDueToday() {
+        return todoRepository.findDueOn(LocalDate.now()).map(TodoRow::toTodo);
+    }
+    
+    public Flux<Todo> getTodosByCollaborator(String collaborator) {
+        return todoRepository.findByCollaboratorName(Todo.normalizeCollaborator(collaborator)).map(TodoRow::toTodo);
+    }
+    
+    public Flux<Todo> getTodosByCollaboratorPrefix(String prefix) {
+        return Mono.fromCallable(() -> CollaboratorQueries.prefixPattern(prefix))
+            .flatMapMany(todoRepository::findByCollaboratorNameLike)
+            .map(TodoRow::toTodo);
+    }
+    
+    private Flux<Todo> select(Query query) {
+        return template.select(TodoRow.class).matching(query).all().map(TodoRow::toTodo);
+    }
+    
+    // Listeners block (JPA, caches), so they run off the event loop once the write has committed
+    private Mono<Void> publish(TodoChangedEvent event) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(event))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+    
+    private Mono<Void> replaceCollaborators(Long todoId, String collaborators) {
+        return deleteCollaborators(todoId)
+            .thenMany(Flux.fromIterable(Todo.parseCollaborators(collaborators)))
+            .concatMap(name -> databaseClient.sql("INSERT INTO todo_collaborators (todo_id, name) VALUES (:todoId, :name)")
+                .bind("todoId", todoId)
+                .bind("name", name)
+                .then())
+            .then();
+    }
+    
+    private Mono<Void> deleteCollaborators(Long todoId) {
+        return databaseClient.sql("DELETE FROM todo_collaborators WHERE todo_id = :todoId")
+            .bind("todoId", todoId)
+            .then();
+    }
+    
+    // Rows strictly after the cursor in (createdAt DESC, id DESC) order
+    private static Criteria keysetAfter(TodoCursor cursor) {
+        return Criteria.where("createdAt").lessThan(cursor.getSortKey())
+            .or(Criteria.where("createdAt").is(cursor.getSortKey()).and("id").lessThan(cursor.getId()));
+    }
+    
+    // Same filters as TodoServiceModern; search is a case-insensitive match on description or comments
+    private static Criteria buildCriteria(String search, String filter) {
+        Criteria criteria = Criteria.empty();
+        
+        if (search != null && !search.trim().isEmpty()) {
+            String pattern = "%" + search.trim() + "%";
+            criteria = criteria.and(Criteria.where("description").like(pattern).ignoreCase(true)
+                .or(Criteria.where("comments").like(pattern).ignoreCase(true)));
+        }
+        
+        if (filter != null) {
+            String filterLower = filter.toLowerCase();
+            if ("completed".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("completed").isTrue());
+            } else if ("pending".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("completed").isFalse());
+            } else if ("overdue".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("endDate").lessThan(LocalDate.now())
+                    .and("completed").isFalse());
+            } else if ("due-today".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("endDate").is(LocalDate.now()));
+            } else if ("high-priority".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("priority").is(Todo.Priority.HIGH));
+            } else if ("urgent".equals(filterLower)) {
+                criteria = criteria.and(Criteria.where("priority").is(Todo.Priority.URGENT));
+            }
+        }
+        
+        return criteria;
+    }
+    
+    private static List<Todo> orderedBy(List<Long> ids, Map<Long, Todo> todosById) {
+        return ids.stream()
+            .distinct()
+            .map(todosById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+}
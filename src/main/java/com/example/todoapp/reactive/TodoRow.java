@@ -0,0 +1,170 @@
+package com.example.todoapp.reactive;
+
+import com.example.todoapp.entity.Todo;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code todos} table. The JPA {@link Todo} entity stays the
+ * domain model; rows are converted at the repository boundary so the DTOs and
+ * change events are shared with the servlet stack.
+ */
+@Table("todos")
+public class TodoRow {
+    
+    @Id
+    private Long id;
+    
+    private String description;
+    
+    @Column("start_date")
+    private LocalDate startDate;
+    
+    @Column("end_date")
+    private LocalDate endDate;
+    
+    private Todo.Priority priority;
+    
+    @Column("priority_rank")
+    private Integer priorityRank;
+    
+    private String comments;
+    
+    private String collaborators;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+    
+    private Boolean completed;
+    
+    // Default constructor
+    public TodoRow() {}
+    
+    public static TodoRow from(Todo todo) {
+        TodoRow row = new TodoRow();
+        row.id = todo.getId();
+        row.description = todo.getDescription();
+        row.startDate = todo.getStartDate();
+        row.endDate = todo.getEndDate();
+        row.priority = todo.getPriority();
+        row.priorityRank = Todo.priorityRank(todo.getPriority());
+        row.comments = todo.getComments();
+        row.collaborators = todo.getCollaborators();
+        row.createdAt = todo.getCreatedAt();
+        row.updatedAt = todo.getUpdatedAt();
+        row.completed = todo.getCompleted();
+        return row;
+    }
+    
+    // Setters on Todo stamp updatedAt, so the stored timestamps are restored last
+    public Todo toTodo() {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setDescription(description);
+        todo.setStartDate(startDate);
+        todo.setEndDate(endDate);
+        todo.setPriority(priority);
+        todo.setComments(comments);
+        todo.setCollaborators(collaborators);
+        todo.setCompleted(completed);
+        todo.setCreatedAt(createdAt);
+        todo.setUpdatedAt(updatedAt);
+        return todo;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(Todo.Priority priority) {
+        this.priority = priority;
+    }
+    
+    public Integer getPriorityRank() {
+        return priorityRank;
+    }
+    
+    public void setPriorityRank(Integer priorityRank) {
+        this.priorityRank = priorityRank;
+    }
+    
+    public String getComments() {
+        return comments;
+    }
+    
+    public void setComments(String comments) {
+        this.comments = comments;
+    }
+    
+    public String getCollaborators() {
+        return collaborators;
+    }
+    
+    public void setCollaborators(String collaborators) {
+        this.collaborators = collaborators;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.todoapp.readmodel;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory copy of every todo, answering the {@link TodoRepository}
+ * finders without a connection.
+ *
+ * <p>Todos are held as immutable {@link TodoSnapshot}s in a
+ * {@link ConcurrentHashMap}, with secondary indexes by priority and by
+ * normalized collaborator name. Reads take no lock, so they scale with cores
+ * rather than with the connection pool; writes are applied one at a time from
+ * committed {@link TodoChangedEvent}s. Because the secondary indexes and the
+ * map are not updated atomically, every lookup re-checks its condition against
+ * the snapshot it finally reads.
+ *
+ * <p>Disabled unless {@code app.read-model.enabled} is set. Like
+ * {@link com.example.todoapp.search.TodoSearchIndex}, it is loaded at startup
+ * and {@link #isReady()} stays false until then, so callers fall back to SQL.
+ * {@link TodoReadModelChecker} diffs it against the table.
+ */
+@Component
+public class TodoReadModel {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoReadModel.class);
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    // Same order as TodoRepository.findAllOrderedByPriorityAndDate
+    private static final Comparator<TodoSnapshot> PRIORITY_AND_DATE = Comparator
+        .comparingInt((TodoSnapshot todo) -> Todo.priorityRank(todo.getPriority()))
+        .thenComparing(TodoSnapshot::getEndDate, Comparator.nullsLast(Comparator.naturalOrder()));
+    
+    private static final Comparator<TodoSnapshot> BY_ID = Comparator.comparing(TodoSnapshot::getId);
+    
+    private final Map<Long, TodoSnapshot> todos = new ConcurrentHashMap<>();
+    
+    // Secondary indexes: priority (null key as NONE) and collaborator name -> todo ids
+    private final Map<Todo.Priority, Set<Long>> byPriority = new EnumMap<>(Todo.Priority.class);
+    private final Set<Long> unprioritized = ConcurrentHashMap.newKeySet();
+    private final ConcurrentSkipListMap<String, Set<Long>> byCollaborator = new ConcurrentSkipListMap<>();
+    
+    private final TodoRepository todoRepository;
+    private final boolean enabled;
+    
+    // Ids written while the table is being read by a load or a check; those rows are newer than what was read
+    private volatile Set<Long> touched;
+    private volatile boolean ready;
+    
+    public TodoReadModel(TodoRepository todoRepository,
+                         @Value("${app.read-model.enabled:false}") boolean enabled) {
+        this.todoRepository = todoRepository;
+        this.enabled = enabled;
+        for (Todo.Priority priority : Todo.Priority.values()) {
+            byPriority.put(priority, ConcurrentHashMap.newKeySet());
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return todos.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        
+        long started = System.currentTimeMillis();
+        startTracking();
+        try {
+            long lastId = 0L;
+            List<Todo> batch;
+            do {
+                batch = todoRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Todo todo : batch) {
+                    putIfUntouched(TodoSnapshot.of(todo));
+                    lastId = todo.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            ready = true;
+            logger.info("Read model loaded with {} todos in {} ms", todos.size(), System.currentTimeMillis() - started);
+        } finally {
+            stopTracking();
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTodoChanged(TodoChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        
+        Set<Long> tracking = touched;
+        if (tracking != null) {
+            tracking.add(event.getTodoId());
+        }
+        
+        TodoSnapshot todo = event.getTodo();
+        if (todo == null) {
+            remove(event.getTodoId());
+        } else {
+            put(todo);
+        }
+    }
+    
+    // Finders, mirroring TodoRepository; lists are in id order unless stated otherwise
+    
+    public TodoSnapshot findById(Long id) {
+        return todos.get(id);
+    }
+    
+    // In the order of the given ids, skipping unknown ones
+    public List<TodoSnapshot> findAllById(Collection<Long> ids) {
+        return ids.stream()
+            .map(todos::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
+    public List<TodoSnapshot> findAll() {
+        return matching(todo -> true);
+    }
+    
+    public List<TodoSnapshot> findAllOrderedByPriorityAndDate() {
+        List<TodoSnapshot> result = new ArrayList<>(todos.values());
+        result.sort(PRIORITY_AND_DATE);
+        return result;
+    }
+    
+    public List<TodoSnapshot> findByCompleted(boolean completed) {
+        return matching(todo -> todo.isCompleted() == completed);
+    }
+    
+    public List<TodoSnapshot> findByPriority(Todo.Priority priority) {
+        Set<Long> ids = priority == null ? unprioritized : byPriority.get(priority);
+        return lookup(ids, todo -> todo.getPriority() == priority);
+    }
+    
+    // Same bounds as TodoRepository.findByDateRange: starts on or after startDate and ends on or before endDate
+    public List<TodoSnapshot> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return matching(todo -> todo.getStartDate() != null && !todo.getStartDate().isBefore(startDate)
+            && todo.getEndDate() != null && !todo.getEndDate().isAfter(endDate));
+    }
+    
+    public List<TodoSnapshot> findByCollaboratorName(String normalizedName) {
+        Set<Long> ids = byCollaborator.getOrDefault(normalizedName, Collections.emptySet());
+        return lookup(ids, todo -> Todo.parseCollaborators(todo.getCollaborators()).contains(normalizedName));
+    }
+    
+    public List<TodoSnapshot> findByCollaboratorPrefix(String normalizedPrefix) {
+        Set<Long> ids = new HashSet<>();
+        byCollaborator.subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false)
+            .values().forEach(ids::addAll);
+        return lookup(ids, todo -> Todo.parseCollaborators(todo.getCollaborators()).stream()
+            .anyMatch(name -> name.startsWith(normalizedPrefix)));
+    }
+    
+    public List<TodoSnapshot> findOverdue(LocalDate today) {
+        return matching(todo -> !todo.isCompleted() && todo.getEndDate() != null && todo.getEndDate().isBefore(today));
+    }
+    
+    public List<TodoSnapshot> findDueOn(LocalDate day) {
+        return matching(todo -> day.equals(todo.getEndDate()));
+    }
+    
+    // The ids that satisfy the condition, keeping their given order
+    public List<Long> filterIds(List<Long> ids, Predicate<TodoSnapshot> condition) {
+        return ids.stream()
+            .filter(id -> {
+                TodoSnapshot todo = todos.get(id);
+                return todo != null && condition.test(todo);
+            })
+            .collect(Collectors.toList());
+    }
+    
+    // Scans use a parallel stream: with the whole table in memory they are CPU-bound
+    private List<TodoSnapshot> matching(Predicate<TodoSnapshot> condition) {
+        return todos.values().parallelStream()
+            .filter(condition)
+            .sorted(BY_ID)
+            .collect(Collectors.toList());
+    }
+    
+    private List<TodoSnapshot> lookup(Set<Long> ids, Predicate<TodoSnapshot> condition) {
+        return ids.stream()
+            .map(todos::get)
+            .filter(todo -> todo != null && condition.test(todo))
+            .sorted(BY_ID)
+            .collect(Collectors.toList());
+    }
+    
+    // Write side, used by the event listener and by TodoReadModelChecker
+    
+    Set<Long> startTracking() {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        touched = ids;
+        return ids;
+    }
+    
+    void stopTracking() {
+        touched = null;
+    }
+    
+    Collection<Long> ids() {
+        return Collections.unmodifiableSet(todos.keySet());
+    }
+    
+    // Replaces the row with the table's state unless a write committed since it was read
+    synchronized boolean putIfUntouched(TodoSnapshot todo) {
+        if (touched.contains(todo.getId())) {
+            return false;
+        }
+        put(todo);
+        return true;
+    }
+    
+    synchronized boolean removeIfUntouched(Long id) {
+        if (touched.contains(id)) {
+            return false;
+        }
+        remove(id);
+        return true;
+    }
+    
+    private void put(TodoSnapshot todo) {
+        TodoSnapshot previous = todos.put(todo.getId(), todo);
+        if (previous != null) {
+            unindex(previous);
+        }
+        priorityIds(todo.getPriority()).add(todo.getId());
+        for (String name : Todo.parseCollaborators(todo.getCollaborators())) {
+            byCollaborator.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(todo.getId());
+        }
+    }
+    
+    private void remove(Long id) {
+        TodoSnapshot previous = todos.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+    
+    private void unindex(TodoSnapshot todo) {
+        priorityIds(todo.getPriority()).remove(todo.getId());
+        for (String name : Todo.parseCollaborators(todo.getCollaborators())) {
+            byCollaborator.computeIfPresent(name, (n, ids) -> {
+                ids.remove(todo.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+    
+    private Set<Long> priorityIds(Todo.Priority priority) {
+        return priority == null ? unprioritized : byPriority.get(priority);
+    }
+}
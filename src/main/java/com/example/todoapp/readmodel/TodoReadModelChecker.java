@@ -0,0 +1,225 @@
+package com.example.todoapp.readmodel;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Diffs {@link TodoReadModel} against the table, one id-ordered batch at a
+ * time, and repairs what differs.
+ *
+ * <p>A row is <em>missing</em> when the table has it and the model does not,
+ * <em>stale</em> when both have it with different values, and
+ * <em>unexpected</em> when only the model has it. Rows written while the check
+ * runs are skipped, since the batch read for them may already be older than
+ * the model. Runs every {@code app.read-model.check-interval}, on demand
+ * from the {@code readmodel} actuator endpoint, and after a bulk toggle, which
+ * changes rows without saying which.
+ */
+@Component
+public class TodoReadModelChecker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoReadModelChecker.class);
+    
+    private static final int CHECK_BATCH_SIZE = 1000;
+    
+    // Ids of the first differences, kept in the report for inspection
+    private static final int MAX_REPORTED_IDS = 20;
+    
+    private final TodoReadModel readModel;
+    private final TodoRepository todoRepository;
+    
+    private volatile Report lastReport;
+    
+    public TodoReadModelChecker(TodoReadModel readModel, TodoRepository todoRepository) {
+        this.readModel = readModel;
+        this.todoRepository = todoRepository;
+    }
+    
+    public Report getLastReport() {
+        return lastReport;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.read-model.check-interval:PT15M}",
+               initialDelayString = "${app.read-model.check-interval:PT15M}")
+    public void scheduledCheck() {
+        if (readModel.isReady()) {
+            check();
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        if (readModel.isReady()) {
+            check(true);
+        }
+    }
+    
+    public Report check() {
+        return check(false);
+    }
+    
+    // After a bulk toggle the differences are expected, so they are repaired without a warning
+    private synchronized Report check(boolean expectDifferences) {
+        if (!readModel.isReady()) {
+            throw new IllegalStateException("Read model is not loaded");
+        }
+        
+        long started = System.currentTimeMillis();
+        Report report = new Report();
+        Set<Long> touched = readModel.startTracking();
+        try {
+            Set<Long> tableIds = new HashSet<>();
+            long lastId = 0L;
+            List<Todo> batch;
+            do {
+                batch = todoRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, CHECK_BATCH_SIZE));
+                for (Todo todo : batch) {
+                    tableIds.add(todo.getId());
+                    compare(TodoSnapshot.of(todo), report);
+                    lastId = todo.getId();
+                }
+            } while (batch.size() == CHECK_BATCH_SIZE);
+            
+            for (Long id : new ArrayList<>(readModel.ids())) {
+                if (!tableIds.contains(id) && !touched.contains(id)) {
+                    report.unexpected.record(id);
+                    if (readModel.removeIfUntouched(id)) {
+                        report.repaired++;
+                    }
+                }
+            }
+            report.checked = tableIds.size();
+        } finally {
+            readModel.stopTracking();
+        }
+        
+        report.durationMs = System.currentTimeMillis() - started;
+        report.checkedAt = LocalDateTime.now();
+        if (report.isConsistent()) {
+            logger.debug("Read model matches the table ({} todos, {} ms)", report.checked, report.durationMs);
+        } else if (expectDifferences) {
+            logger.debug("Read model refreshed after a bulk change: {} repaired", report.repaired);
+        } else {
+            logger.warn("Read model differed from the table: {} missing, {} stale, {} unexpected, {} repaired",
+                        report.missing.count, report.stale.count, report.unexpected.count, report.repaired);
+        }
+        lastReport = report;
+        return report;
+    }
+    
+    private void compare(TodoSnapshot row, Report report) {
+        TodoSnapshot held = readModel.findById(row.getId());
+        Difference difference;
+        if (held == null) {
+            difference = report.missing;
+        } else if (!sameState(held, row)) {
+            difference = report.stale;
+        } else {
+            return;
+        }
+        
+        // A write that committed after this row was read is newer than the row, not a difference
+        if (readModel.putIfUntouched(row)) {
+            difference.record(row.getId());
+            report.repaired++;
+        }
+    }
+    
+    // Timestamps are compared to the microsecond, the precision the column keeps
+    static boolean sameState(TodoSnapshot a, TodoSnapshot b) {
+        return Objects.equals(a.getDescription(), b.getDescription())
+            && Objects.equals(a.getStartDate(), b.getStartDate())
+            && Objects.equals(a.getEndDate(), b.getEndDate())
+            && a.getPriority() == b.getPriority()
+            && Objects.equals(a.getComments(), b.getComments())
+            && Objects.equals(a.getCollaborators(), b.getCollaborators())
+            && a.isCompleted() == b.isCompleted()
+            && Objects.equals(micros(a.getCreatedAt()), micros(b.getCreatedAt()))
+            && Objects.equals(micros(a.getUpdatedAt()), micros(b.getUpdatedAt()));
+    }
+    
+    private static LocalDateTime micros(LocalDateTime timestamp) {
+        return timestamp == null ? null : timestamp.truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    public static class Difference {
+        
+        private long count;
+        private final List<Long> ids = new ArrayList<>();
+        
+        void record(Long id) {
+            count++;
+            if (ids.size() < MAX_REPORTED_IDS) {
+                ids.add(id);
+            }
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public List<Long> getIds() {
+            return ids;
+        }
+    }
+    
+    public static class Report {
+        
+        private final Difference missing = new Difference();
+        private final Difference stale = new Difference();
+        private final Difference unexpected = new Difference();
+        private long checked;
+        private long repaired;
+        private long durationMs;
+        private LocalDateTime checkedAt;
+        
+        public boolean isConsistent() {
+            return missing.count == 0 && stale.count == 0 && unexpected.count == 0;
+        }
+        
+        public Difference getMissing() {
+            return missing;
+        }
+        
+        public Difference getStale() {
+            return stale;
+        }
+        
+        public Difference getUnexpected() {
+            return unexpected;
+        }
+        
+        public long getChecked() {
+            return checked;
+        }
+        
+        public long getRepaired() {
+            return repaired;
+        }
+        
+        public long getDurationMs() {
+            return durationMs;
+        }
+        
+        public LocalDateTime getCheckedAt() {
+            return checkedAt;
+        }
+    }
+}
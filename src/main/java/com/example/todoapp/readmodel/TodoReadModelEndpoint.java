@@ -0,0 +1,41 @@
+package com.example.todoapp.readmodel;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/readmodel}: GET shows the model's state and the last
+ * consistency report, POST runs a check now.
+ */
+@Component
+@Endpoint(id = "readmodel")
+public class TodoReadModelEndpoint {
+    
+    private final TodoReadModel readModel;
+    private final TodoReadModelChecker checker;
+    
+    public TodoReadModelEndpoint(TodoReadModel readModel, TodoReadModelChecker checker) {
+        this.readModel = readModel;
+        this.checker = checker;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", readModel.isEnabled());
+        status.put("ready", readModel.isReady());
+        status.put("size", readModel.size());
+        status.put("lastCheck", checker.getLastReport());
+        return status;
+    }
+    
+    @WriteOperation
+    public TodoReadModelChecker.Report check() {
+        return checker.check();
+    }
+}
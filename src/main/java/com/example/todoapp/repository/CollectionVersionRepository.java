@@ -0,0 +1,23 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.entity.CollectionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, Long> {
+    
+    @Query("SELECT v.version FROM CollectionVersion v WHERE v.id = :id")
+    Optional<Long> findVersion(@Param("id") Long id);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE CollectionVersion v SET v.version = v.version + 1 WHERE v.id = :id")
+    int increment(@Param("id") Long id);
+}
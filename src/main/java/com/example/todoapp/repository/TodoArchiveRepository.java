@@ -0,0 +1,43 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.entity.ArchivedTodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TodoArchiveRepository extends JpaRepository<ArchivedTodo, Long> {
+    
+    String COLUMNS = "id, description, start_date, end_date, priority, priority_rank, comments, collaborators, " +
+                     "created_at, updated_at, completed";
+    
+    // Copy live todos into the archive in one statement
+    @Modifying
+    @Query(value = "INSERT INTO todos_archive (" + COLUMNS + ", archived_at) " +
+                   "SELECT " + COLUMNS + ", :archivedAt FROM todos WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromTodos(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    // Copy an archived todo back into the live table under its original id
+    @Modifying
+    @Query(value = "INSERT INTO todos (" + COLUMNS + ") SELECT " + COLUMNS + " FROM todos_archive WHERE id = :id",
+           nativeQuery = true)
+    int copyToTodos(@Param("id") Long id);
+    
+    // Locked, so two requests reopening or deleting the same todo act on it once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArchivedTodo a WHERE a.id = :id")
+    Optional<ArchivedTodo> findForRestore(@Param("id") Long id);
+    
+    // Every archived todo in id order, for the legacy list with includeArchived
+    List<ArchivedTodo> findAllByOrderByIdAsc();
+}
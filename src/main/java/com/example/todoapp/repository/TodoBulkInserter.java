@@ -0,0 +1,181 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.entity.Todo;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts new todos and their normalized collaborator names with plain JDBC
+ * on the current transaction's connection. Hibernate has to send IDENTITY
+ * inserts one row at a time to learn each id; here PostgreSQL gets the ids
+ * reserved from the table's sequence in one query and the rows through COPY,
+ * and other databases (H2) get one JDBC batch per table with the generated
+ * keys read back. Either way the ids are set on the given todos.
+ */
+@Repository
+public class TodoBulkInserter {
+    
+    private static final String COLUMNS = "description, start_date, end_date, priority, priority_rank, comments, " +
+                                          "collaborators, created_at, updated_at, completed";
+    
+    private final DataSource dataSource;
+    private final SQLExceptionTranslator exceptionTranslator;
+    private final boolean copyEnabled;
+    
+    public TodoBulkInserter(DataSource dataSource,
+                            @Value("${app.import.copy:true}") boolean copyEnabled) {
+        this.dataSource = dataSource;
+        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.copyEnabled = copyEnabled;
+    }
+    
+    // Must run inside a transaction so the rows commit (or roll back) with the caller's other work
+    public void insert(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (copyEnabled && connection.isWrapperFor(PGConnection.class)) {
+                copy(connection, todos);
+            } else {
+                batch(connection, todos);
+            }
+        } catch (SQLException ex) {
+            throw exceptionTranslator.translate("Bulk insert of " + todos.size() + " todos", null, ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+    
+    private void copy(Connection connection, List<Todo> todos) throws SQLException, IOException {
+        List<Long> ids = reserveIds(connection, todos.size());
+        StringBuilder rows = new StringBuilder(todos.size() * 128);
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            todo.setId(ids.get(i));
+            rows.append(todo.getId()).append(',');
+            appendCsv(rows, todo.getDescription()).append(',');
+            appendCsv(rows, todo.getStartDate()).append(',');
+            appendCsv(rows, todo.getEndDate()).append(',');
+            appendCsv(rows, todo.getPriority()).append(',');
+            appendCsv(rows, todo.getPriorityRank()).append(',');
+            appendCsv(rows, todo.getComments()).append(',');
+            appendCsv(rows, todo.getCollaborators()).append(',');
+            appendCsv(rows, todo.getCreatedAt()).append(',');
+            appendCsv(rows, todo.getUpdatedAt()).append(',');
+            appendCsv(rows, todo.getCompleted()).append('\n');
+            for (String name : todo.getCollaboratorNames()) {
+                names.append(todo.getId()).append(',');
+                appendCsv(names, name).append('\n');
+            }
+        }
+        
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        copyManager.copyIn("COPY todos (id, " + COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                           new StringReader(rows.toString()));
+        if (names.length() > 0) {
+            copyManager.copyIn("COPY todo_collaborators (todo_id, name) FROM STDIN WITH (FORMAT csv)",
+                               new StringReader(names.toString()));
+        }
+    }
+    
+    // COPY bypasses the column default, so take the ids from the sequence behind it up front
+    private static List<Long> reserveIds(Connection connection, int count) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval(pg_get_serial_sequence('todos', 'id')) FROM generate_series(1, ?)")) {
+            statement.setInt(1, count);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+    
+    // Nulls are unquoted empty fields; every other value is quoted so an empty string stays one
+    static StringBuilder appendCsv(StringBuilder out, Object value) {
+        if (value == null) {
+            return out;
+        }
+        String text = value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+        return out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+    
+    private static void batch(Connection connection, List<Todo> todos) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO todos (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (Todo todo : todos) {
+                setNullable(insert, 1, todo.getDescription(), Types.VARCHAR);
+                setNullable(insert, 2, todo.getStartDate(), Types.DATE);
+                setNullable(insert, 3, todo.getEndDate(), Types.DATE);
+                setNullable(insert, 4, todo.getPriority() == null ? null : todo.getPriority().name(), Types.VARCHAR);
+                setNullable(insert, 5, todo.getPriorityRank(), Types.INTEGER);
+                setNullable(insert, 6, todo.getComments(), Types.VARCHAR);
+                setNullable(insert, 7, todo.getCollaborators(), Types.VARCHAR);
+                setNullable(insert, 8, todo.getCreatedAt(), Types.TIMESTAMP);
+                setNullable(insert, 9, todo.getUpdatedAt(), Types.TIMESTAMP);
+                setNullable(insert, 10, todo.getCompleted(), Types.BOOLEAN);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                for (Todo todo : todos) {
+                    if (!keys.next()) {
+                        throw new SQLException("Expected " + todos.size() + " generated ids from the batch insert");
+                    }
+                    todo.setId(keys.getLong(1));
+                }
+            }
+        }
+        
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO todo_collaborators (todo_id, name) VALUES (?, ?)")) {
+            int names = 0;
+            for (Todo todo : todos) {
+                for (String name : todo.getCollaboratorNames()) {
+                    insert.setLong(1, todo.getId());
+                    insert.setString(2, name);
+                    insert.addBatch();
+                    names++;
+                }
+            }
+            if (names > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+    
+    private static void setNullable(PreparedStatement statement, int index, Object value, int sqlType)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+}
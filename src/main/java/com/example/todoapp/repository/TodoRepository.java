@@ -1,17 +1,35 @@
 package com.example.todoapp.repository;
 
+import com.example.todoapp.dto.TodoSummary;
 import com.example.todoapp.entity.Todo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo>, TodoRepositoryCustom {
+    
+    // Rows pulled per JDBC round trip when streaming; Postgres only honours it inside a transaction
+    String STREAM_FETCH_SIZE = "500";
+    
+    // Constructor expression for list views: truncated description, no comments, nothing managed
+    String SUMMARY = "new com.example.todoapp.dto.TodoSummary(t.id, " +
+                     "SUBSTRING(t.description, 1, " + TodoSummary.DESCRIPTION_FETCH_LENGTH + "), " +
+                     "t.startDate, t.endDate, t.priority, t.collaborators, t.completed, t.createdAt, t.updatedAt)";
     
     // Find todos by completion status
     List<Todo> findByCompleted(Boolean completed);
@@ -26,25 +44,148 @@ public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificat
     // Find todos containing specific text in description
     List<Todo> findByDescriptionContainingIgnoreCase(String description);
     
+    // Find todos containing specific text in description or comments, the fields the search index covers
+    @Query("SELECT t FROM Todo t WHERE LOWER(t.description) LIKE LOWER(CONCAT('%', :text, '%')) " +
+           "OR LOWER(t.comments) LIKE LOWER(CONCAT('%', :text, '%'))")
+    List<Todo> findByDescriptionOrCommentsContaining(@Param("text") String text);
+    
     // Find todos by collaborator
     List<Todo> findByCollaboratorsContainingIgnoreCase(String collaborator);
     
+    // Find todos by exact normalized collaborator name (served by idx_todo_collaborators_name)
+    @Query("SELECT t FROM Todo t JOIN t.collaboratorNames c WHERE c = :name")
+    List<Todo> findByCollaboratorName(@Param("name") String name);
+    
+    // Find todos having a collaborator whose normalized name matches a LIKE prefix pattern
+    @Query("SELECT DISTINCT t FROM Todo t JOIN t.collaboratorNames c WHERE c LIKE :pattern ESCAPE '!'")
+    List<Todo> findByCollaboratorNameLike(@Param("pattern") String pattern);
+    
+    // Todos whose collaborator names have not been indexed yet, in id order
+    @Query("SELECT t FROM Todo t WHERE t.id > :afterId AND t.collaborators IS NOT NULL " +
+           "AND t.collaboratorNames IS EMPTY ORDER BY t.id")
+    List<Todo> findUnindexedCollaborators(@Param("afterId") Long afterId, Pageable pageable);
+    
     // Find overdue todos
-    @Query("SELECT t FROM Todo t WHERE t.endDate < CURRENT_DATE AND t.completed = false")
-    List<Todo> findOverdueTodos();
-    
-    // Find todos due today
-    @Query("SELECT t FROM Todo t WHERE t.endDate = CURRENT_DATE")
-    List<Todo> findTodosDueToday();
-    
-    // Find todos ordered by priority and end date
-    @Query("SELECT t FROM Todo t ORDER BY " +
-           "CASE t.priority " +
-           "WHEN 'URGENT' THEN 1 " +
-           "WHEN 'HIGH' THEN 2 " +
-           "WHEN 'MEDIUM' THEN 3 " +
-           "WHEN 'LOW' THEN 4 " +
-           "ELSE 5 END, " +
-           "t.endDate ASC NULLS LAST")
+    @Query("SELECT t FROM Todo t WHERE t.endDate < :today AND t.completed = false")
+    List<Todo> findOverdueTodos(@Param("today") LocalDate today);
+    
+    // Find todos due on the day
+    @Query("SELECT t FROM Todo t WHERE t.endDate = :day")
+    List<Todo> findTodosDueOn(@Param("day") LocalDate day);
+    
+    // Find pending todos due before the date, overdue ones included
+    @Query("SELECT t FROM Todo t WHERE t.endDate < :before AND t.completed = false")
+    List<Todo> findPendingTodosDueBefore(@Param("before") LocalDate before);
+    
+    // Todos the due-date index holds: pending with an end date, and completed not yet past due, in id order
+    @Query("SELECT t FROM Todo t WHERE t.id > :afterId AND t.endDate IS NOT NULL " +
+           "AND (t.completed = false OR t.endDate >= :today) ORDER BY t.id")
+    List<Todo> findDueDateCandidates(@Param("afterId") Long afterId, @Param("today") LocalDate today, Pageable pageable);
+    
+    // Summary counterparts of the list queries above
+    @Query("SELECT " + SUMMARY + " FROM Todo t WHERE t.priority = :priority")
+    List<TodoSummary> findSummariesByPriority(@Param("priority") Todo.Priority priority);
+    
+    @Query("SELECT " + SUMMARY + " FROM Todo t WHERE t.startDate >= :startDate AND t.endDate <= :endDate")
+    List<TodoSummary> findSummariesByDateRange(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT " + SUMMARY + " FROM Todo t JOIN t.collaboratorNames c WHERE c = :name")
+    List<TodoSummary> findSummariesByCollaboratorName(@Param("name") String name);
+    
+    @Query("SELECT DISTINCT " + SUMMARY + " FROM Todo t JOIN t.collaboratorNames c WHERE c LIKE :pattern ESCAPE '!'")
+    List<TodoSummary> findSummariesByCollaboratorNameLike(@Param("pattern") String pattern);
+    
+    @Query("SELECT " + SUMMARY + " FROM Todo t WHERE t.endDate < :today AND t.completed = false")
+    List<TodoSummary> findOverdueSummaries(@Param("today") LocalDate today);
+    
+    @Query("SELECT " + SUMMARY + " FROM Todo t WHERE t.endDate = :day")
+    List<TodoSummary> findSummariesDueOn(@Param("day") LocalDate day);
+    
+    @Query("SELECT " + SUMMARY + " FROM Todo t WHERE t.endDate < :before AND t.completed = false")
+    List<TodoSummary> findPendingSummariesDueBefore(@Param("before") LocalDate before);
+    
+    // Todos changed after the (updatedAt, id) keyset position, up to `until`, oldest first
+    @Query("SELECT t FROM Todo t " +
+           "WHERE (t.updatedAt > :updatedAt OR (t.updatedAt = :updatedAt AND t.id > :id)) " +
+           "AND t.updatedAt <= :until " +
+           "ORDER BY t.updatedAt ASC, t.id ASC")
+    List<Todo> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                @Param("until") LocalDateTime until, Pageable pageable);
+    
+    // Todo counts per completion state, priority and end date, for reconciling the statistics counters
+    @Query("SELECT t.completed, t.priority, t.endDate, COUNT(t) FROM Todo t " +
+           "GROUP BY t.completed, t.priority, t.endDate")
+    List<Object[]> countByCompletedPriorityAndEndDate();
+    
+    // Find todos ordered by priority and end date (read in order from idx_todos_priority_rank_end_date)
+    @Query("SELECT t FROM Todo t ORDER BY t.priorityRank ASC, t.endDate ASC NULLS LAST")
     List<Todo> findAllOrderedByPriorityAndDate();
+    
+    // Realign priority_rank with priority for rows written before the column existed or by plain SQL
+    @Modifying
+    @Query("UPDATE Todo t SET t.priorityRank = :rank " +
+           "WHERE t.priority = :priority AND (t.priorityRank IS NULL OR t.priorityRank <> :rank)")
+    int alignPriorityRank(@Param("priority") Todo.Priority priority, @Param("rank") int rank);
+    
+    @Modifying
+    @Query("UPDATE Todo t SET t.priorityRank = :rank " +
+           "WHERE t.priority IS NULL AND (t.priorityRank IS NULL OR t.priorityRank <> :rank)")
+    int alignUnprioritizedRank(@Param("rank") int rank);
+    
+    // Rows the backfill would touch: no rank yet, or the column default despite having a priority
+    boolean existsByPriorityRankIsNull();
+    
+    boolean existsByPriorityIsNotNullAndPriorityRank(int priorityRank);
+    
+    // Flip completion in one statement; the row lock it takes serializes concurrent toggles
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+           "t.updatedAt = :now WHERE t.id = :id")
+    int toggleCompleted(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    // Flip completion of many todos in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+           "t.updatedAt = :now WHERE t.id IN :ids")
+    int toggleCompletedByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Set completion of many todos in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Todo t SET t.completed = :completed, t.updatedAt = :now WHERE t.id IN :ids")
+    int setCompletedByIds(@Param("ids") Collection<Long> ids, @Param("completed") Boolean completed,
+                          @Param("now") LocalDateTime now);
+    
+    // Completed todos last changed before the cutoff, in id order; locked so a concurrent toggle waits for the move
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Todo t WHERE t.completed = true AND t.updatedAt < :cutoff ORDER BY t.id")
+    List<Todo> findArchivable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Bulk deletes skip the element collection, so its rows go first
+    @Modifying
+    @Query(value = "DELETE FROM todo_collaborators WHERE todo_id IN (:ids)", nativeQuery = true)
+    int deleteCollaboratorNames(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    // Walk the table in id order, one batch at a time
+    List<Todo> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Stream all todos; callers must consume inside a transaction and close the stream
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t")
+    Stream<Todo> streamAll();
+    
+    // Stream todos ordered by priority and end date
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t ORDER BY t.priorityRank ASC, t.endDate ASC NULLS LAST")
+    Stream<Todo> streamAllOrderedByPriorityAndDate();
 }
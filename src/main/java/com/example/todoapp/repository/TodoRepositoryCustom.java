@@ -0,0 +1,25 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.dto.TodoSummary;
+import com.example.todoapp.entity.Todo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TodoRepositoryCustom {
+    
+    // Find at most `limit` todos matching the specification, without issuing a count query
+    List<Todo> findSlice(Specification<Todo> spec, Sort sort, int limit);
+    
+    // Find only the ids of todos matching the specification
+    List<Long> findIds(Specification<Todo> spec);
+    
+    // Summary projection of the todos matching the specification, in the pageable's order and window
+    List<TodoSummary> findSummaries(Specification<Todo> spec, Pageable pageable);
+    
+    // Set (or, with a null target, flip) completion of every todo matching the specification in one statement
+    int updateCompleted(Specification<Todo> spec, Boolean completed, LocalDateTime now);
+}
@@ -0,0 +1,122 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.dto.TodoSummary;
+import com.example.todoapp.entity.Todo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Todo> findSlice(Specification<Todo> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> root = query.from(Todo.class);
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public List<Long> findIds(Specification<Todo> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Todo> root = query.from(Todo.class);
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(root.get("id"));
+        
+        return entityManager.createQuery(query).getResultList();
+    }
+    
+    @Override
+    public List<TodoSummary> findSummaries(Specification<Todo> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoSummary> query = cb.createQuery(TodoSummary.class);
+        Root<Todo> root = query.from(Todo.class);
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.select(cb.construct(TodoSummary.class,
+            root.get("id"),
+            cb.substring(root.<String>get("description"), 1, TodoSummary.DESCRIPTION_FETCH_LENGTH),
+            root.get("startDate"),
+            root.get("endDate"),
+            root.get("priority"),
+            root.get("collaborators"),
+            root.get("completed"),
+            root.get("createdAt"),
+            root.get("updatedAt")));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        
+        TypedQuery<TodoSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+    
+    // Specifications here must not use the query argument; an update has none
+    @Override
+    public int updateCompleted(Specification<Todo> spec, Boolean completed, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Todo> update = cb.createCriteriaUpdate(Todo.class);
+        Root<Todo> root = update.from(Todo.class);
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, null, cb);
+            if (predicate != null) {
+                update.where(predicate);
+            }
+        }
+        if (completed == null) {
+            update.set(root.<Boolean>get("completed"), cb.<Boolean>selectCase()
+                .when(cb.isTrue(root.get("completed")), false)
+                .otherwise(true));
+        } else {
+            update.set(root.<Boolean>get("completed"), completed);
+        }
+        update.set(root.<LocalDateTime>get("updatedAt"), now);
+        
+        // Same as @Modifying(flushAutomatically = true, clearAutomatically = true) on the id-based updates
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
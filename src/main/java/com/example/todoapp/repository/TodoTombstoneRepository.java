@@ -0,0 +1,41 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.entity.TodoTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+    
+    // Tombstones after the (deletedAt, todoId) keyset position, up to `until`, oldest first
+    @Query("SELECT t FROM TodoTombstone t " +
+           "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.todoId > :todoId)) " +
+           "AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt ASC, t.todoId ASC")
+    List<TodoTombstone> findAfter(@Param("deletedAt") LocalDateTime deletedAt, @Param("todoId") Long todoId,
+                                  @Param("until") LocalDateTime until, Pageable pageable);
+    
+    // Tombstones for live todos about to leave the table in bulk (the archive job), in one statement
+    @Modifying
+    @Query(value = "INSERT INTO todo_tombstones (todo_id, deleted_at) " +
+                   "SELECT id, :deletedAt FROM todos WHERE id IN (:ids)",
+           nativeQuery = true)
+    int insertForTodos(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // A restored todo is live again, so sync clients must not be told it is gone
+    @Modifying
+    @Query("DELETE FROM TodoTombstone t WHERE t.todoId = :todoId")
+    int deleteByTodoId(@Param("todoId") Long todoId);
+    
+    @Modifying
+    @Query("DELETE FROM TodoTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
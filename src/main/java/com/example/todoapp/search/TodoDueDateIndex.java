@@ -0,0 +1,269 @@
+package com.example.todoapp.search;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.service.TodoChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of todos bucketed by end date, answering the overdue,
+ * due-today and due-soon views without a query.
+ *
+ * <p>Pending todos are kept for every end date. Completed todos only matter
+ * for the due-today view, so they are kept while their end date is today or
+ * later and dropped by the midnight rollover once it has passed. Buckets are
+ * ordered by end date and then id, so a view costs a range walk proportional
+ * to its matches. Like {@link TodoSearchIndex}, the index is rebuilt at
+ * startup and then maintained from committed {@link TodoChangedEvent}s; until
+ * the rebuild finishes, {@link #isReady()} is false and callers should fall
+ * back to SQL.
+ *
+ * <p>Events only cover writes made by this instance, so every
+ * {@code app.due-index.catch-up-interval} the index also applies what the
+ * change feed reports since its last read. Writes through other instances
+ * therefore show up in these views within that interval plus the feed's
+ * settle window (35 seconds with the defaults).
+ */
+@Component
+public class TodoDueDateIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoDueDateIndex.class);
+    
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+    
+    // end date -> (todo id -> todo), guarded by this
+    private final NavigableMap<LocalDate, NavigableMap<Long, TodoSnapshot>> pending = new TreeMap<>();
+    private final NavigableMap<LocalDate, NavigableMap<Long, TodoSnapshot>> completed = new TreeMap<>();
+    
+    // todo id -> its indexed state, so updates and deletes can find the old bucket; guarded by this
+    private final Map<Long, TodoSnapshot> entries = new HashMap<>();
+    
+    private final TodoRepository todoRepository;
+    private final TodoChangeFeedService changeFeed;
+    private final Clock clock;
+    
+    // Ids written while a rebuild or catch-up is running; it must not overwrite them with older rows
+    private volatile Set<Long> touchedDuringRebuild;
+    private volatile boolean ready;
+    
+    // Change feed position the next catch-up reads from
+    private volatile String feedToken;
+    
+    // Rebuilds and catch-ups share the touched set, so only one runs at a time
+    private final Object refreshLock = new Object();
+    
+    public TodoDueDateIndex(TodoRepository todoRepository, TodoChangeFeedService changeFeed, Clock clock) {
+        this.todoRepository = todoRepository;
+        this.changeFeed = changeFeed;
+        this.clock = clock;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            LocalDate today = LocalDate.now(clock);
+            String token = changeFeed.tokenAt(LocalDateTime.now());
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            try {
+                Set<Long> candidateIds = new HashSet<>();
+                long lastId = 0L;
+                List<Todo> batch;
+                do {
+                    batch = todoRepository.findDueDateCandidates(lastId, today, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                    for (Todo todo : batch) {
+                        indexIfUntouched(TodoSnapshot.of(todo), today);
+                        candidateIds.add(todo.getId());
+                        lastId = todo.getId();
+                    }
+                } while (batch.size() == REBUILD_BATCH_SIZE);
+                removeAbsent(candidateIds);
+                feedToken = token;
+                ready = true;
+                logger.info("Due-date index built with {} todos in {} ms", size(), System.currentTimeMillis() - started);
+            } finally {
+                touchedDuringRebuild = null;
+            }
+        }
+    }
+    
+    // Applies changes committed through other instances since the last catch-up
+    @Scheduled(fixedDelayString = "${app.due-index.catch-up-interval:PT30S}",
+               initialDelayString = "${app.due-index.catch-up-interval:PT30S}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        synchronized (refreshLock) {
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            try {
+                TodoChangeFeedService.Changes changes;
+                do {
+                    changes = changeFeed.changesAfter(feedToken, CATCH_UP_BATCH_SIZE);
+                    if (changes.isResyncRequired()) {
+                        logger.warn("Due-date index fell behind the change feed's retention; rebuilding");
+                        touchedDuringRebuild = null;
+                        rebuild();
+                        return;
+                    }
+                    LocalDate today = LocalDate.now(clock);
+                    for (Long id : changes.getDeletedIds()) {
+                        removeIfUntouched(id);
+                    }
+                    for (Todo todo : changes.getTodos()) {
+                        indexIfUntouched(TodoSnapshot.of(todo), today);
+                    }
+                    feedToken = changes.getToken();
+                } while (changes.isHasMore());
+            } finally {
+                touchedDuringRebuild = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTodoChanged(TodoChangedEvent event) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.add(event.getTodoId());
+        }
+        
+        TodoSnapshot todo = event.getTodo();
+        if (todo == null) {
+            remove(event.getTodoId());
+        } else {
+            index(todo, LocalDate.now(clock));
+        }
+    }
+    
+    // A bulk toggle does not say which todos changed; the rebuild rereads the candidates
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        if (ready) {
+            rebuild();
+        }
+    }
+    
+    // Completed todos whose end date has passed can no longer be due today
+    @Scheduled(cron = "${app.due-index.rollover-cron:0 0 0 * * *}")
+    public synchronized void rollover() {
+        LocalDate today = LocalDate.now(clock);
+        NavigableMap<LocalDate, NavigableMap<Long, TodoSnapshot>> past = completed.headMap(today, false);
+        int dropped = 0;
+        for (NavigableMap<Long, TodoSnapshot> bucket : past.values()) {
+            entries.keySet().removeAll(bucket.keySet());
+            dropped += bucket.size();
+        }
+        past.clear();
+        logger.debug("Due-date index rolled over to {}, dropped {} completed todos", today, dropped);
+    }
+    
+    private synchronized void indexIfUntouched(TodoSnapshot todo, LocalDate today) {
+        if (!touchedDuringRebuild.contains(todo.getId())) {
+            index(todo, today);
+        }
+    }
+    
+    private synchronized void removeIfUntouched(Long id) {
+        if (!touchedDuringRebuild.contains(id)) {
+            remove(id);
+        }
+    }
+    
+    // Only matters when rebuilding a live index: drops todos that stopped being candidates
+    private synchronized void removeAbsent(Set<Long> candidateIds) {
+        for (Long id : new ArrayList<>(entries.keySet())) {
+            if (!candidateIds.contains(id) && !touchedDuringRebuild.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+    
+    private void index(TodoSnapshot todo, LocalDate today) {
+        remove(todo.getId());
+        LocalDate endDate = todo.getEndDate();
+        if (endDate == null || (todo.isCompleted() && endDate.isBefore(today))) {
+            return;
+        }
+        (todo.isCompleted() ? completed : pending).computeIfAbsent(endDate, d -> new TreeMap<>()).put(todo.getId(), todo);
+        entries.put(todo.getId(), todo);
+    }
+    
+    private void remove(Long id) {
+        TodoSnapshot previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        NavigableMap<LocalDate, NavigableMap<Long, TodoSnapshot>> buckets = previous.isCompleted() ? completed : pending;
+        buckets.computeIfPresent(previous.getEndDate(), (date, bucket) -> {
+            bucket.remove(id);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+    
+    // Pending todos due before today, by end date and id
+    public synchronized List<TodoSnapshot> overdue(LocalDate today) {
+        return flatten(pending.headMap(today, false).values());
+    }
+    
+    // Pending and completed todos due on the day, by id within each
+    public synchronized List<TodoSnapshot> dueOn(LocalDate day) {
+        List<TodoSnapshot> result = new ArrayList<>();
+        NavigableMap<Long, TodoSnapshot> open = pending.get(day);
+        if (open != null) {
+            result.addAll(open.values());
+        }
+        NavigableMap<Long, TodoSnapshot> done = completed.get(day);
+        if (done != null) {
+            result.addAll(done.values());
+        }
+        return result;
+    }
+    
+    // Pending todos due within the given days, overdue ones included, as TodoResponse.isDueSoon counts them
+    public synchronized List<TodoSnapshot> dueWithin(LocalDate today, int days) {
+        return flatten(pending.headMap(today.plusDays(days + 1L), false).values());
+    }
+    
+    private static List<TodoSnapshot> flatten(Collection<NavigableMap<Long, TodoSnapshot>> buckets) {
+        List<TodoSnapshot> result = new ArrayList<>();
+        for (NavigableMap<Long, TodoSnapshot> bucket : buckets) {
+            result.addAll(bucket.values());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.todoapp.search;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.service.TodoChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over todo descriptions and comments.
+ *
+ * <p>Postings are kept per token, so a query only touches the documents that
+ * contain its tokens. The last query token is treated as a prefix to support
+ * search-as-you-type. The index is rebuilt from the database at startup and
+ * then maintained from committed {@link TodoChangedEvent}s; until the rebuild
+ * finishes, {@link #isReady()} is false and callers should fall back to SQL.
+ *
+ * <p>Events only cover writes made by this instance. Every
+ * {@code app.search.catch-up-interval} the index also reads the change feed
+ * from where it last stopped and applies what other instances changed, so
+ * their writes show up here within that interval plus the feed's settle
+ * window. A search returns every matching id; callers that bind them into
+ * SQL do so in bounded chunks.
+ */
+@Component
+public class TodoSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoSearchIndex.class);
+    
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int COMMENTS_WEIGHT = 1;
+    
+    // token -> (todo id -> weighted term frequency)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    
+    // todo id -> its indexed tokens, so updates and deletes can retract old postings
+    private final Map<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+    
+    private final TodoRepository todoRepository;
+    private final TodoChangeFeedService changeFeed;
+    
+    // Ids written while a rebuild or catch-up is running; it must not overwrite them with older rows
+    private volatile Set<Long> touchedDuringRebuild;
+    private volatile boolean ready;
+    
+    // Change feed position the next catch-up reads from
+    private volatile String feedToken;
+    
+    // Rebuilds and catch-ups share the touched set, so only one runs at a time
+    private final Object refreshLock = new Object();
+    
+    public TodoSearchIndex(TodoRepository todoRepository, TodoChangeFeedService changeFeed) {
+        this.todoRepository = todoRepository;
+        this.changeFeed = changeFeed;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return documents.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (refreshLock) {
+            long started = System.currentTimeMillis();
+            String token = changeFeed.tokenAt(LocalDateTime.now());
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            try {
+                Set<Long> tableIds = new HashSet<>();
+                long lastId = 0L;
+                List<Todo> batch;
+                do {
+                    batch = todoRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                    for (Todo todo : batch) {
+                        indexIfUntouched(todo);
+                        tableIds.add(todo.getId());
+                        lastId = todo.getId();
+                    }
+                } while (batch.size() == REBUILD_BATCH_SIZE);
+                
+                // Only matters when rebuilding a live index: drop todos removed since it was built
+                for (Long id : new ArrayList<>(documents.keySet())) {
+                    if (!tableIds.contains(id)) {
+                        removeIfUntouched(id);
+                    }
+                }
+                feedToken = token;
+                ready = true;
+                logger.info("Search index built with {} todos and {} tokens in {} ms",
+                    documents.size(), postings.size(), System.currentTimeMillis() - started);
+            } finally {
+                touchedDuringRebuild = null;
+            }
+        }
+    }
+    
+    /**
+     * Applies changes committed through other instances since the last
+     * catch-up. Rows this instance wrote in the meantime are left to its
+     * events, which are at least as new as the feed's copy.
+     */
+    @Scheduled(fixedDelayString = "${app.search.catch-up-interval:PT30S}",
+               initialDelayString = "${app.search.catch-up-interval:PT30S}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        synchronized (refreshLock) {
+            touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+            try {
+                TodoChangeFeedService.Changes changes;
+                int applied = 0;
+                do {
+                    changes = changeFeed.changesAfter(feedToken, CATCH_UP_BATCH_SIZE);
+                    if (changes.isResyncRequired()) {
+                        logger.warn("Search index fell behind the change feed's retention; rebuilding");
+                        touchedDuringRebuild = null;
+                        rebuild();
+                        return;
+                    }
+                    for (Long id : changes.getDeletedIds()) {
+                        removeIfUntouched(id);
+                    }
+                    for (Todo todo : changes.getTodos()) {
+                        indexIfUntouched(todo);
+                    }
+                    applied += changes.getDeletedIds().size() + changes.getTodos().size();
+                    feedToken = changes.getToken();
+                } while (changes.isHasMore());
+                logger.debug("Search index caught up with {} changes from the feed", applied);
+            } finally {
+                touchedDuringRebuild = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTodoChanged(TodoChangedEvent event) {
+        Set<Long> touched = touchedDuringRebuild;
+        if (touched != null) {
+            touched.add(event.getTodoId());
+        }
+        
+        TodoSnapshot todo = event.getTodo();
+        if (todo == null) {
+            remove(event.getTodoId());
+        } else {
+            index(todo.getId(), todo.getDescription(), todo.getComments());
+        }
+    }
+    
+    private synchronized void indexIfUntouched(Todo todo) {
+        if (!touchedDuringRebuild.contains(todo.getId())) {
+            index(todo.getId(), todo.getDescription(), todo.getComments());
+        }
+    }
+    
+    private synchronized void removeIfUntouched(Long id) {
+        if (!touchedDuringRebuild.contains(id)) {
+            retract(id);
+        }
+    }
+    
+    public synchronized void index(Long id, String description, String comments) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String token : tokenize(description)) {
+            terms.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(comments)) {
+            terms.merge(token, COMMENTS_WEIGHT, Integer::sum);
+        }
+        
+        retract(id);
+        terms.forEach((token, frequency) ->
+            postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(id, frequency));
+        documents.put(id, terms);
+    }
+    
+    public synchronized void remove(Long id) {
+        retract(id);
+    }
+    
+    /**
+     * Ids of all todos matching every token of the query, best match first. Cost is proportional to the
+     * postings of the query tokens, not to the number of indexed todos.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+        int documentCount = Math.max(documents.size(), 1);
+        
+        List<Map<Long, Double>> perToken = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean prefix = lastIsPrefix && i == tokens.size() - 1;
+            Map<Long, Double> scores = scoreToken(tokens.get(i), prefix, documentCount);
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+            perToken.add(scores);
+        }
+        
+        // Intersect starting from the rarest token to keep the work small
+        perToken.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Double> results = new HashMap<>(perToken.get(0));
+        for (int i = 1; i < perToken.size() && !results.isEmpty(); i++) {
+            Map<Long, Double> next = perToken.get(i);
+            results.keySet().retainAll(next.keySet());
+            results.replaceAll((id, score) -> score + next.get(id));
+        }
+        
+        List<Long> ranked = new ArrayList<>(results.keySet());
+        ranked.sort(Comparator.<Long, Double>comparing(results::get).reversed()
+            .thenComparing(Comparator.reverseOrder()));
+        return ranked;
+    }
+    
+    private Map<Long, Double> scoreToken(String token, boolean prefix, int documentCount) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matching = prefix
+            ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+            : singlePosting(token);
+        
+        matching.values().forEach(docs -> {
+            double idf = Math.log(1.0 + (double) documentCount / docs.size());
+            docs.forEach((id, frequency) -> scores.merge(id, frequency * idf, Double::sum));
+        });
+        return scores;
+    }
+    
+    private Map<String, Map<Long, Integer>> singlePosting(String token) {
+        Map<Long, Integer> docs = postings.get(token);
+        return docs == null ? Collections.emptyMap() : Collections.singletonMap(token, docs);
+    }
+    
+    private void retract(Long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        previous.keySet().forEach(token -> postings.computeIfPresent(token, (t, docs) -> {
+            docs.remove(id);
+            return docs.isEmpty() ? null : docs;
+        }));
+    }
+    
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
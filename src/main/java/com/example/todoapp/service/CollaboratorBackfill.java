@@ -0,0 +1,71 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Populates the todo_collaborators index for rows written before it existed.
+ * Runs once at startup in small transactions so it never holds long locks;
+ * rows written by the application are indexed as they are saved.
+ */
+@Component
+public class CollaboratorBackfill {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CollaboratorBackfill.class);
+    
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    
+    public CollaboratorBackfill(TodoRepository todoRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.collaborators.backfill.enabled:true}") boolean enabled,
+                                @Value("${app.collaborators.backfill.batch-size:500}") int batchSize) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        
+        long lastId = 0L;
+        long indexed = 0L;
+        while (true) {
+            Long afterId = lastId;
+            List<Long> batchIds = transactionTemplate.execute(status -> indexBatch(afterId));
+            if (batchIds == null || batchIds.isEmpty()) {
+                break;
+            }
+            indexed += batchIds.size();
+            lastId = batchIds.get(batchIds.size() - 1);
+        }
+        
+        if (indexed > 0) {
+            logger.info("Backfilled collaborator index for {} todos", indexed);
+        }
+    }
+    
+    private List<Long> indexBatch(Long afterId) {
+        List<Todo> todos = todoRepository.findUnindexedCollaborators(afterId, PageRequest.of(0, batchSize));
+        todos.forEach(Todo::reindexCollaborators);
+        return todos.stream().map(Todo::getId).collect(Collectors.toList());
+    }
+}
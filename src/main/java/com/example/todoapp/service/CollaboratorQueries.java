@@ -0,0 +1,21 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.Todo;
+
+public final class CollaboratorQueries {
+    
+    private CollaboratorQueries() {
+    }
+    
+    // LIKE pattern for a normalized name prefix, escaping wildcards with '!'
+    public static String prefixPattern(String prefix) {
+        String normalized = Todo.normalizeCollaborator(prefix);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Collaborator prefix must not be blank");
+        }
+        return normalized
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_") + "%";
+    }
+}
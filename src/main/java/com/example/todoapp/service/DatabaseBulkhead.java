@@ -0,0 +1,236 @@
+package com.example.todoapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs the REST controllers' database work off the servlet container's threads.
+ *
+ * <p>In {@code bulkhead} mode work goes to a dedicated executor (virtual
+ * threads when the runtime has them, otherwise a fixed pool) and at most
+ * {@code max-concurrency} tasks, by default the Hikari pool size, touch the
+ * database at once. Up to {@code queue-capacity} more may wait, each for at
+ * most {@code queue-timeout}; beyond that requests fail fast with 503. A
+ * saturated database therefore ties up neither Tomcat's workers nor the
+ * endpoints that do not need it. In {@code blocking} mode work runs inline
+ * on the request thread, as before.
+ *
+ * <p>The timeout is enforced from submission: a timer fails the request with
+ * 503 and drops its task if the task has not started by then, so a request
+ * never waits behind a slow queue for longer than {@code queue-timeout}. The
+ * fixed-pool fallback uses a queue bounded to {@code queue-capacity}.
+ */
+@Component
+public class DatabaseBulkhead {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBulkhead.class);
+    
+    private final boolean enabled;
+    private final Semaphore concurrency;
+    private final Semaphore admission;
+    private final long queueTimeoutNanos;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final Counter rejected;
+    
+    public DatabaseBulkhead(MeterRegistry meterRegistry,
+                            @Value("${app.execution.mode:blocking}") String mode,
+                            @Value("${app.execution.max-concurrency:0}") int maxConcurrency,
+                            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                            @Value("${app.execution.queue-capacity:200}") int queueCapacity,
+                            @Value("${app.execution.queue-timeout:PT2S}") Duration queueTimeout) {
+        switch (mode.toLowerCase(Locale.ROOT)) {
+            case "blocking":
+                this.enabled = false;
+                break;
+            case "bulkhead":
+                this.enabled = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown app.execution.mode: " + mode);
+        }
+        
+        int limit = maxConcurrency > 0 ? maxConcurrency : poolSize;
+        this.concurrency = new Semaphore(limit);
+        this.admission = new Semaphore(limit + queueCapacity);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.executor = enabled ? createExecutor(limit, queueCapacity) : null;
+        this.timer = enabled ? createTimer() : null;
+        
+        this.rejected = Counter.builder("todo.bulkhead.rejected")
+            .description("Requests refused because the database bulkhead was full or the wait timed out")
+            .register(meterRegistry);
+        meterRegistry.gauge("todo.bulkhead.available", concurrency, Semaphore::availablePermits);
+        
+        if (enabled) {
+            logger.info("Database bulkhead enabled: {} concurrent, {} queued, {} queue timeout",
+                        limit, queueCapacity, queueTimeout);
+        }
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(work.get());
+        }
+        if (!admission.tryAcquire()) {
+            return rejected("Too many requests waiting for the database");
+        }
+        
+        Task<T> task = new Task<>(work, RequestContextHolder.getRequestAttributes(), System.nanoTime());
+        try {
+            task.timeout = timer.schedule(task::expire, queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            if (task.claim()) {
+                if (task.timeout != null) {
+                    task.timeout.cancel(false);
+                }
+                admission.release();
+                return rejected("Database executor is full or shut down");
+            }
+        }
+        return task.result;
+    }
+    
+    private <T> void run(Task<T> task) {
+        long remaining = queueTimeoutNanos - (System.nanoTime() - task.submitted);
+        try {
+            if (remaining <= 0 || !concurrency.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                task.result.completeExceptionally(unavailable("Timed out waiting for the database"));
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.result.completeExceptionally(unavailable("Interrupted waiting for the database"));
+            return;
+        }
+        
+        // Keep request-scoped state (e.g. the metrics endpoint tag) visible to the work
+        RequestContextHolder.setRequestAttributes(task.requestAttributes);
+        try {
+            task.result.complete(task.work.get());
+        } catch (Throwable ex) {
+            task.result.completeExceptionally(ex);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            concurrency.release();
+        }
+    }
+    
+    private <T> CompletableFuture<T> rejected(String reason) {
+        rejected.increment();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(unavailable(reason));
+        return result;
+    }
+    
+    private static ResponseStatusException unavailable(String reason) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+    
+    // Virtual threads (Java 21+) make each waiting request cheap; the semaphores do the bounding
+    private static ExecutorService createExecutor(int threads, int queueCapacity) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("todo-db-");
+            threadFactory.setDaemon(true);
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory);
+        }
+    }
+    
+    private static ScheduledExecutorService createTimer() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("todo-db-timeout-");
+        threadFactory.setDaemon(true);
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, threadFactory);
+        // Most timeouts are cancelled when their task starts; do not keep them queued until they would fire
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            timer.shutdownNow();
+        }
+    }
+    
+    // Submitted work; whichever of the executor and the timeout claims it first decides its outcome
+    private final class Task<T> implements Runnable {
+        
+        final Supplier<T> work;
+        final RequestAttributes requestAttributes;
+        final long submitted;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        volatile ScheduledFuture<?> timeout;
+        
+        Task(Supplier<T> work, RequestAttributes requestAttributes, long submitted) {
+            this.work = work;
+            this.requestAttributes = requestAttributes;
+            this.submitted = submitted;
+        }
+        
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+        
+        @Override
+        public void run() {
+            if (!claim()) {
+                // Already failed by the timeout, which released the admission permit
+                return;
+            }
+            ScheduledFuture<?> pending = timeout;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            try {
+                DatabaseBulkhead.this.run(this);
+            } finally {
+                admission.release();
+            }
+        }
+        
+        void expire() {
+            if (!claim()) {
+                return;
+            }
+            if (executor instanceof ThreadPoolExecutor) {
+                ((ThreadPoolExecutor) executor).remove(this);
+            }
+            admission.release();
+            rejected.increment();
+            result.completeExceptionally(unavailable("Timed out waiting for the database"));
+        }
+    }
+}
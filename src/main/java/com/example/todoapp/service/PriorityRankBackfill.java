@@ -0,0 +1,64 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Brings priority_rank in line with priority for rows the entity callbacks
+ * never saw: rows written before the column existed, and rows inserted by the
+ * SQL seed scripts. Runs once at startup with one UPDATE per priority, each in
+ * its own transaction, but only when some row still has no rank or has the
+ * column default despite having a priority; otherwise two indexed existence
+ * checks are all it costs.
+ */
+@Component
+public class PriorityRankBackfill {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PriorityRankBackfill.class);
+    
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    
+    public PriorityRankBackfill(TodoRepository todoRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.priority-rank.backfill.enabled:true}") boolean enabled) {
+        this.todoRepository = todoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        if (!todoRepository.existsByPriorityRankIsNull() &&
+            !todoRepository.existsByPriorityIsNotNullAndPriorityRank(Todo.UNPRIORITIZED_RANK)) {
+            logger.debug("Priority ranks already aligned; skipping backfill");
+            return;
+        }
+        
+        int aligned = 0;
+        for (Todo.Priority priority : Todo.Priority.values()) {
+            Integer updated = transactionTemplate.execute(
+                status -> todoRepository.alignPriorityRank(priority, priority.getRank()));
+            aligned += updated == null ? 0 : updated;
+        }
+        Integer unprioritized = transactionTemplate.execute(
+            status -> todoRepository.alignUnprioritizedRank(Todo.UNPRIORITIZED_RANK));
+        aligned += unprioritized == null ? 0 : unprioritized;
+        
+        if (aligned > 0) {
+            logger.info("Backfilled priority rank for {} todos", aligned);
+        }
+    }
+}
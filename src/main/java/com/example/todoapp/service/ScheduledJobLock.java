@@ -0,0 +1,50 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.JobLock;
+import com.example.todoapp.repository.JobLockRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Keeps a scheduled job to one instance at a time with a lease row in
+ * job_locks. The lease expires on its own, so a crashed holder only blocks
+ * the job until then; it must outlast the longest run.
+ */
+@Component
+public class ScheduledJobLock {
+    
+    private final JobLockRepository repository;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+    
+    public ScheduledJobLock(JobLockRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+    
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (repository.acquire(name, now, now.plus(lease), owner) == 1) {
+            return true;
+        }
+        if (repository.existsById(name)) {
+            return false;
+        }
+        // First run anywhere: whoever inserts the row holds the lease
+        try {
+            repository.saveAndFlush(new JobLock(name, now.plus(lease), owner));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+    
+    public void unlock(String name) {
+        repository.release(name, owner, LocalDateTime.now(clock));
+    }
+}
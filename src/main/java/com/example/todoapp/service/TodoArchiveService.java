@@ -0,0 +1,215 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.ArchivedTodo;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.repository.TodoArchiveRepository;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.repository.TodoTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the todos table to live work. A nightly job moves completed todos
+ * that have not changed for {@code app.archive.min-age} into todos_archive,
+ * {@code app.archive.batch-size} rows per transaction, so pending-oriented
+ * queries and their indexes only cover what is still in play.
+ *
+ * <p>Archived todos are read through {@code includeArchived} and the archive
+ * list endpoint. A write that un-completes one moves it back under its
+ * original id first, so clients never see the difference, and a delete removes
+ * it from the archive. Live-table listeners see
+ * {@link TodoChangedEvent.Type#ARCHIVED} and
+ * {@link TodoChangedEvent.Type#RESTORED}. Archiving leaves a sync tombstone,
+ * since the row is gone from the change feed's table; restoring removes it.
+ *
+ * <p>The job takes the {@code todo-archive} lease in job_locks first, so only
+ * one instance runs it; {@code app.archive.lock-lease} must outlast a run.
+ */
+@Service
+public class TodoArchiveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoArchiveService.class);
+    
+    private static final String LOCK_NAME = "todo-archive";
+    
+    private static final Sort ARCHIVE_ORDER = Sort.by(Sort.Order.desc("archivedAt"), Sort.Order.desc("id"));
+    
+    private final TodoRepository todoRepository;
+    private final TodoArchiveRepository archiveRepository;
+    private final TodoTombstoneRepository tombstoneRepository;
+    private final ScheduledJobLock jobLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration lockLease;
+    private final Counter archived;
+    private final Counter restored;
+    
+    public TodoArchiveService(TodoRepository todoRepository, TodoArchiveRepository archiveRepository,
+                              TodoTombstoneRepository tombstoneRepository, ScheduledJobLock jobLock,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                              Clock clock, MeterRegistry meterRegistry,
+                              @Value("${app.archive.enabled:false}") boolean enabled,
+                              @Value("${app.archive.min-age:P90D}") Duration minAge,
+                              @Value("${app.archive.batch-size:500}") int batchSize,
+                              @Value("${app.archive.lock-lease:PT2H}") Duration lockLease) {
+        this.todoRepository = todoRepository;
+        this.archiveRepository = archiveRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.jobLock = jobLock;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.lockLease = lockLease;
+        
+        this.archived = Counter.builder("todo.archive.archived")
+            .description("Completed todos moved to the archive table")
+            .register(meterRegistry);
+        this.restored = Counter.builder("todo.archive.restored")
+            .description("Archived todos moved back when they were reopened")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLock.tryLock(LOCK_NAME, lockLease)) {
+            logger.debug("Archive job is running on another instance; skipping");
+            return;
+        }
+        try {
+            archiveCompletedBefore(LocalDateTime.now(clock).minus(minAge));
+        } finally {
+            jobLock.unlock(LOCK_NAME);
+        }
+    }
+    
+    // Move every completed todo last changed before the cutoff; returns how many moved
+    public int archiveCompletedBefore(LocalDateTime cutoff) {
+        long started = System.currentTimeMillis();
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            int count = moved == null ? 0 : moved;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} todos completed before {} in {} ms", total, cutoff,
+                        System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Todo> todos = todoRepository.findArchivable(cutoff, PageRequest.of(0, batchSize));
+        if (todos.isEmpty()) {
+            return 0;
+        }
+        List<TodoSnapshot> snapshots = todos.stream().map(TodoSnapshot::of).collect(Collectors.toList());
+        List<Long> ids = todos.stream().map(Todo::getId).collect(Collectors.toList());
+        
+        LocalDateTime now = LocalDateTime.now(clock);
+        archiveRepository.copyFromTodos(ids, now);
+        tombstoneRepository.insertForTodos(ids, now);
+        todoRepository.deleteCollaboratorNames(ids);
+        todoRepository.deleteByIds(ids);
+        
+        snapshots.forEach(snapshot -> eventPublisher.publishEvent(TodoChangedEvent.archived(snapshot)));
+        archived.increment(ids.size());
+        return ids.size();
+    }
+    
+    // Move an archived todo back into the live table if the change would un-complete it, and return it
+    // as it was archived for the caller to change; null when it is not archived or would stay completed
+    @Transactional
+    public Todo restoreIfReopened(Long id, Consumer<Todo> change) {
+        Optional<ArchivedTodo> archivedTodo = archiveRepository.findForRestore(id);
+        if (!archivedTodo.isPresent()) {
+            return null;
+        }
+        Todo trial = archivedTodo.get().toTodo();
+        change.accept(trial);
+        if (Boolean.TRUE.equals(trial.getCompleted())) {
+            return null;
+        }
+        
+        archiveRepository.copyToTodos(id);
+        archiveRepository.delete(archivedTodo.get());
+        tombstoneRepository.deleteByTodoId(id);
+        Todo todo = todoRepository.findById(id)
+            .orElseThrow(() -> new IllegalStateException("Restored todo " + id + " is not in the live table"));
+        // Normalized names were dropped with the live row
+        todo.reindexCollaborators();
+        
+        eventPublisher.publishEvent(TodoChangedEvent.restored(todo));
+        restored.increment();
+        logger.info("Restored archived todo {}", id);
+        return todo;
+    }
+    
+    // Delete an archived todo for good; false when it is not archived
+    @Transactional
+    public boolean deleteIfArchived(Long id) {
+        Optional<ArchivedTodo> archivedTodo = archiveRepository.findForRestore(id);
+        if (!archivedTodo.isPresent()) {
+            return false;
+        }
+        archiveRepository.delete(archivedTodo.get());
+        eventPublisher.publishEvent(TodoChangedEvent.deletedFromArchive(id));
+        logger.info("Deleted archived todo {}", id);
+        return true;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<Todo> findById(Long id) {
+        return archiveRepository.findById(id).map(ArchivedTodo::toTodo);
+    }
+    
+    // Most recently archived first; the client's sort is ignored
+    @Transactional(readOnly = true)
+    public Page<Todo> findAll(Pageable pageable) {
+        return archiveRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ARCHIVE_ORDER))
+            .map(ArchivedTodo::toTodo);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Todo> findAll() {
+        return archiveRepository.findAllByOrderByIdAsc().stream()
+            .map(ArchivedTodo::toTodo)
+            .collect(Collectors.toList());
+    }
+}
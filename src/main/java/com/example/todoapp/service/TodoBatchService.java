@@ -0,0 +1,259 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoBatchRequest;
+import com.example.todoapp.dto.TodoBatchRequest.Operation;
+import com.example.todoapp.dto.TodoBatchRequest.OperationType;
+import com.example.todoapp.dto.TodoBatchResponse;
+import com.example.todoapp.dto.TodoBatchResponse.Result;
+import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Applies mixed create/update/delete operations in chunked transactions.
+ * Each chunk loads the rows it touches with one IN query and flushes once,
+ * letting Hibernate group the resulting statements into JDBC batches.
+ * Operations are validated before any chunk runs, so a chunk that rolls back
+ * only turns its writes into 409s; 400s and 404s keep their own outcome.
+ */
+@Service
+public class TodoBatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoBatchService.class);
+    
+    private final TodoRepository todoRepository;
+    private final TodoArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int chunkSize;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public TodoBatchService(TodoRepository todoRepository,
+                            TodoArchiveService archiveService,
+                            ApplicationEventPublisher eventPublisher,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager,
+                            Clock clock,
+                            @Value("${app.batch.chunk-size:500}") int chunkSize) {
+        this.todoRepository = todoRepository;
+        this.archiveService = archiveService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+    }
+    
+    public TodoBatchResponse execute(TodoBatchRequest request) {
+        List<Operation> operations = request.getOperations();
+        logger.debug("Executing batch of {} operations in chunks of {}", operations.size(), chunkSize);
+        
+        // One date for the due flags of every result in the batch
+        LocalDate today = LocalDate.now(clock);
+        Result[] results = new Result[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            String error = validate(operations.get(i));
+            if (error != null) {
+                results[i] = failure(i, operations.get(i), HttpStatus.BAD_REQUEST, error);
+            }
+        }
+        
+        for (int start = 0; start < operations.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, operations.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> executeChunk(operations, from, to, results, today));
+            } catch (RuntimeException e) {
+                // Every write in the chunk rolled back, including ones already reported as done; invalid
+                // operations and ids that were not found changed nothing and keep their 400 or 404
+                logger.warn("Batch chunk [{}, {}) rolled back: {}", from, to, e.getMessage());
+                for (int i = from; i < to; i++) {
+                    if (results[i] == null || results[i].isSuccess()) {
+                        results[i] = failure(i, operations.get(i), HttpStatus.CONFLICT,
+                            "Rolled back with its chunk: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        
+        TodoBatchResponse response = new TodoBatchResponse(Arrays.asList(results));
+        logger.info("Batch finished: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+    
+    private void executeChunk(List<Operation> operations, int from, int to, Result[] results, LocalDate today) {
+        // Resolve every row the chunk touches with a single IN query
+        List<Long> ids = IntStream.range(from, to)
+            .filter(i -> results[i] == null)
+            .mapToObj(operations::get)
+            .filter(op -> op.getType() == OperationType.UPDATE || op.getType() == OperationType.DELETE)
+            .map(Operation::getId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Long, Todo> existing = todoRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        
+        List<Todo> created = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        List<Todo> updated = new ArrayList<>();
+        // State of each touched todo before the chunk's first change, so listeners get one net change per todo
+        Map<Long, TodoSnapshot> updatedBefore = new LinkedHashMap<>();
+        List<Integer> updatedIndexes = new ArrayList<>();
+        List<TodoSnapshot> deletedBefore = new ArrayList<>();
+        List<Integer> deletedIndexes = new ArrayList<>();
+        
+        for (int i = from; i < to; i++) {
+            if (results[i] != null) {
+                // Rejected by validation before the chunk started
+                continue;
+            }
+            Operation operation = operations.get(i);
+            
+            switch (operation.getType()) {
+                case CREATE:
+                    created.add(operation.getCreate().toEntity());
+                    createdIndexes.add(i);
+                    break;
+                case UPDATE: {
+                    Todo todo = existing.get(operation.getId());
+                    if (todo == null) {
+                        // An archived todo the update reopens comes back to the live table, within this chunk
+                        todo = archiveService.restoreIfReopened(operation.getId(), operation.getUpdate()::applyTo);
+                        if (todo != null) {
+                            existing.put(todo.getId(), todo);
+                        }
+                    }
+                    if (todo == null) {
+                        results[i] = notFound(i, operation);
+                        break;
+                    }
+                    updatedBefore.putIfAbsent(todo.getId(), TodoSnapshot.of(todo));
+                    operation.getUpdate().applyTo(todo);
+                    updated.add(todo);
+                    updatedIndexes.add(i);
+                    break;
+                }
+                case DELETE: {
+                    // Later operations on the same id in this chunk will see it as gone
+                    Todo todo = existing.remove(operation.getId());
+                    if (todo == null) {
+                        results[i] = notFound(i, operation);
+                        break;
+                    }
+                    TodoSnapshot before = updatedBefore.remove(todo.getId());
+                    deletedBefore.add(before != null ? before : TodoSnapshot.of(todo));
+                    todoRepository.delete(todo);
+                    deletedIndexes.add(i);
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        
+        todoRepository.saveAll(created);
+        // One flush for the chunk so updates and deletes go out as JDBC batches
+        entityManager.flush();
+        
+        for (int n = 0; n < created.size(); n++) {
+            Todo todo = created.get(n);
+            int index = createdIndexes.get(n);
+            results[index] = success(index, operations.get(index), HttpStatus.CREATED, todo, today);
+            eventPublisher.publishEvent(TodoChangedEvent.created(todo));
+        }
+        for (int n = 0; n < updated.size(); n++) {
+            Todo todo = updated.get(n);
+            int index = updatedIndexes.get(n);
+            results[index] = success(index, operations.get(index), HttpStatus.OK, todo, today);
+        }
+        for (Map.Entry<Long, TodoSnapshot> entry : updatedBefore.entrySet()) {
+            eventPublisher.publishEvent(TodoChangedEvent.updated(entry.getValue(), existing.get(entry.getKey())));
+        }
+        for (int n = 0; n < deletedIndexes.size(); n++) {
+            int index = deletedIndexes.get(n);
+            Operation operation = operations.get(index);
+            results[index] = new Result(index, operation.getType(), operation.getId(),
+                HttpStatus.NO_CONTENT.value(), null, null);
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(deletedBefore.get(n)));
+        }
+        
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+    }
+    
+    private String validate(Operation operation) {
+        if (operation.getType() == null) {
+            return "Operation type is required";
+        }
+        switch (operation.getType()) {
+            case CREATE:
+                if (operation.getCreate() == null) {
+                    return "CREATE requires a 'create' payload";
+                }
+                return violations(validator.validate(operation.getCreate()));
+            case UPDATE:
+                if (operation.getId() == null || operation.getUpdate() == null) {
+                    return "UPDATE requires an 'id' and an 'update' payload";
+                }
+                return violations(validator.validate(operation.getUpdate()));
+            case DELETE:
+                return operation.getId() == null ? "DELETE requires an 'id'" : null;
+            default:
+                return "Unsupported operation type: " + operation.getType();
+        }
+    }
+    
+    private static <T> String violations(Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+    
+    private static Result success(int index, Operation operation, HttpStatus status, Todo todo, LocalDate today) {
+        return new Result(index, operation.getType(), todo.getId(), status.value(), TodoResponse.from(todo, today), null);
+    }
+    
+    private static Result notFound(int index, Operation operation) {
+        return failure(index, operation, HttpStatus.NOT_FOUND, "Todo not found with ID: " + operation.getId());
+    }
+    
+    private static Result failure(int index, Operation operation, HttpStatus status, String error) {
+        return new Result(index, operation.getType(), operation.getId(), status.value(), null, error);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoChangeMessage;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed todo changes to Server-Sent Events subscribers.
+ *
+ * <p>Each subscriber has a bounded queue drained by a small shared sender
+ * pool, so a slow client only ever delays itself. When a subscriber's queue
+ * overflows its backlog is dropped and replaced by a single "resync" event,
+ * telling the client to reload instead of replaying every change it missed.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TodoChangeBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoChangeBroadcaster.class);
+    
+    private static final String CHANGE_EVENT = "todo";
+    private static final String RESYNC_EVENT = "resync";
+    
+    // Queue markers; everything else in a queue is a TodoChangeMessage
+    private static final Object RESYNC = new Object();
+    private static final Object HEARTBEAT = new Object();
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService sender;
+    private final Counter resyncs;
+    
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    
+    public TodoChangeBroadcaster(MeterRegistry meterRegistry,
+                                 @Value("${app.events.buffer-size:256}") int bufferSize,
+                                 @Value("${app.events.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${app.events.timeout:PT30M}") Duration timeout,
+                                 @Value("${app.events.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("todo-events-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newFixedThreadPool(senderThreads, threadFactory);
+        
+        meterRegistry.gauge("todo.events.subscribers", subscribers, Set::size);
+        this.resyncs = Counter.builder("todo.events.resyncs")
+            .description("Subscribers whose backlog overflowed and were told to resync")
+            .register(meterRegistry);
+    }
+    
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        logger.debug("Event stream subscriber connected, {} active", subscribers.size());
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        TodoChangeMessage message = TodoChangeMessage.of(sequence.incrementAndGet(), event);
+        subscribers.forEach(subscriber -> subscriber.offer(message));
+    }
+    
+    // Per-todo messages are not available for a bulk toggle, so every subscriber reloads
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        subscribers.forEach(subscriber -> subscriber.offer(RESYNC));
+    }
+    
+    // Comments keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedRateString = "${app.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void offer(Object item) {
+            if (!queue.offer(item)) {
+                // Too far behind to catch up: drop the backlog and have the client reload
+                queue.clear();
+                queue.offer(RESYNC);
+                resyncs.increment();
+            }
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                Object item;
+                while ((item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away, or the emitter already completed
+                logger.debug("Dropping event stream subscriber: {}", ex.getMessage());
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(ex);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have landed after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+        
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (item == RESYNC) {
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+            } else {
+                TodoChangeMessage message = (TodoChangeMessage) item;
+                emitter.send(SseEmitter.event()
+                    .id(String.valueOf(message.getSequence()))
+                    .name(CHANGE_EVENT)
+                    .data(message, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoChangesResponse;
+import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.entity.TodoTombstone;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.repository.TodoTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental sync: "what changed since my token". Changed todos are read by
+ * keyset on (updated_at, id) and deletions from tombstones on
+ * (deleted_at, todo_id); the token holds a position in each.
+ *
+ * <p>Rows newer than the settle window are held back. A transaction stamps
+ * updated_at before it commits, so a row can become visible after a later
+ * stamped one has already been returned; waiting out the window keeps the
+ * token from moving past it. The window must exceed the longest write
+ * transaction.
+ *
+ * <p>Transactions here are deliberately not read-only, so they always read the
+ * primary: a lagging replica would let the token skip rows it has not replayed.
+ */
+@Service
+@Transactional
+public class TodoChangeFeedService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoChangeFeedService.class);
+    
+    private static final String TOKEN_SEPARATOR = ".";
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository tombstoneRepository;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+    
+    public TodoChangeFeedService(TodoRepository todoRepository, TodoTombstoneRepository tombstoneRepository,
+                                 @Value("${app.changes.settle-window:PT5S}") Duration settleWindow,
+                                 @Value("${app.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.todoRepository = todoRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    public TodoChangesResponse getChanges(String since, int limit) {
+        Changes changes = changesAfter(since, limit);
+        if (changes.isResyncRequired()) {
+            return TodoChangesResponse.resync();
+        }
+        return new TodoChangesResponse(
+            changes.getTodos().stream().map(TodoResponse::from).collect(Collectors.toList()),
+            changes.getDeletedIds(),
+            changes.getToken(),
+            changes.isHasMore(),
+            false
+        );
+    }
+    
+    // A token from which every change committed after `time` is reported, for in-memory indexes
+    // that loaded the table at `time` and follow the feed from there
+    public String tokenAt(LocalDateTime time) {
+        TodoCursor position = new TodoCursor(time.minus(settleWindow), 0L);
+        return position.encode() + TOKEN_SEPARATOR + position.encode();
+    }
+    
+    // The changed rows themselves, for callers inside the application
+    public Changes changesAfter(String since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.minus(settleWindow);
+        
+        TodoCursor todoPosition;
+        TodoCursor tombstonePosition;
+        if (since == null || since.isEmpty()) {
+            // A first sync receives every live todo; deletions before it are irrelevant
+            todoPosition = new TodoCursor(BEGINNING, 0L);
+            tombstonePosition = new TodoCursor(until, Long.MAX_VALUE);
+        } else {
+            int separator = since.indexOf(TOKEN_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid sync token: " + since);
+            }
+            todoPosition = TodoCursor.decode(since.substring(0, separator));
+            tombstonePosition = TodoCursor.decode(since.substring(separator + 1));
+            if (tombstonePosition.getSortKey().isBefore(now.minus(tombstoneRetention))) {
+                return Changes.RESYNC;
+            }
+        }
+        
+        // Fetch one extra row from each side to learn whether more remain
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Todo> todos = todoRepository.findChangedAfter(
+            todoPosition.getSortKey(), todoPosition.getId(), until, page);
+        List<TodoTombstone> tombstones = tombstoneRepository.findAfter(
+            tombstonePosition.getSortKey(), tombstonePosition.getId(), until, page);
+        
+        boolean hasMore = todos.size() > limit || tombstones.size() > limit;
+        if (todos.size() > limit) {
+            todos = todos.subList(0, limit);
+        }
+        if (tombstones.size() > limit) {
+            tombstones = tombstones.subList(0, limit);
+        }
+        
+        // A side read to the end is settled up to `until`; move it there so idle tokens do not age out
+        if (todos.size() < limit) {
+            todoPosition = new TodoCursor(until, Long.MAX_VALUE);
+        } else {
+            Todo last = todos.get(todos.size() - 1);
+            todoPosition = new TodoCursor(last.getUpdatedAt(), last.getId());
+        }
+        if (tombstones.size() < limit) {
+            tombstonePosition = new TodoCursor(until, Long.MAX_VALUE);
+        } else {
+            TodoTombstone last = tombstones.get(tombstones.size() - 1);
+            tombstonePosition = new TodoCursor(last.getDeletedAt(), last.getTodoId());
+        }
+        
+        return new Changes(
+            todos,
+            tombstones.stream().map(TodoTombstone::getTodoId).collect(Collectors.toList()),
+            todoPosition.encode() + TOKEN_SEPARATOR + tombstonePosition.encode(),
+            hasMore,
+            false
+        );
+    }
+    
+    // Written inside the deleting transaction, so a delete and its tombstone commit together
+    @Transactional
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void recordTombstone(TodoChangedEvent event) {
+        if (event.getType() == TodoChangedEvent.Type.DELETED) {
+            tombstoneRepository.save(new TodoTombstone(event.getTodoId(), LocalDateTime.now()));
+        }
+    }
+    
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.changes.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            logger.info("Purged {} todo tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+    
+    // One page of the feed: rows changed and ids removed since the token, and where to continue
+    public static class Changes {
+        
+        static final Changes RESYNC = new Changes(Collections.emptyList(), Collections.emptyList(), null, false, true);
+        
+        private final List<Todo> todos;
+        private final List<Long> deletedIds;
+        private final String token;
+        private final boolean hasMore;
+        private final boolean resyncRequired;
+        
+        Changes(List<Todo> todos, List<Long> deletedIds, String token, boolean hasMore, boolean resyncRequired) {
+            this.todos = todos;
+            this.deletedIds = deletedIds;
+            this.token = token;
+            this.hasMore = hasMore;
+            this.resyncRequired = resyncRequired;
+        }
+        
+        public List<Todo> getTodos() {
+            return todos;
+        }
+        
+        public List<Long> getDeletedIds() {
+            return deletedIds;
+        }
+        
+        public String getToken() {
+            return token;
+        }
+        
+        public boolean isHasMore() {
+            return hasMore;
+        }
+        
+        public boolean isResyncRequired() {
+            return resyncRequired;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.CollectionVersion;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import com.example.todoapp.repository.CollectionVersionRepository;
+import com.example.todoapp.search.TodoSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the whole todo collection, used as the ETag of API reads so
+ * unchanged data can be confirmed without running the query behind the
+ * response. Answering a conditional GET reads only memory.
+ *
+ * <p>A commit on this instance moves the version at once, in memory. Every
+ * {@code app.etag.sync-interval} the instance folds its commits since the last
+ * sync into one increment of the todo_collection_version row and reads the row
+ * back, which is how it learns about writes made through other instances (or
+ * the reactive API). Writes never wait on the row; it is updated at most once
+ * per interval per instance. A client may therefore be told its copy is
+ * current for up to two intervals after another instance changed the data.
+ * Tags of unsynced local commits carry the instance id, so two instances never
+ * hand out the same tag for different data.
+ *
+ * <p>The tag also carries the current date, since responses include
+ * date-relative fields (overdue, due today). Searches answered before the
+ * search index is ready use a SQL fallback that ranks differently, so
+ * readiness is part of the tag too. With read replicas, a version younger than
+ * {@code app.read-replicas.read-your-writes-window} is not {@link #settled()}:
+ * a replica may not have the change yet, so the body could be older than the tag.
+ */
+@Component
+public class TodoCollectionVersion {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoCollectionVersion.class);
+    
+    private final CollectionVersionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoSearchIndex searchIndex;
+    private final Clock clock;
+    private final long settleMillis;
+    private final String instance = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicReference<Version> current = new AtomicReference<>(new Version(0, 0));
+    private volatile long changedAt;
+    
+    public TodoCollectionVersion(CollectionVersionRepository repository, PlatformTransactionManager transactionManager,
+                                 TodoSearchIndex searchIndex, Clock clock,
+                                 @Value("${app.read-replicas.enabled:false}") boolean readReplicas,
+                                 @Value("${app.read-replicas.read-your-writes-window:PT5S}") Duration settleWindow) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.clock = clock;
+        this.settleMillis = readReplicas ? settleWindow.toMillis() : 0;
+    }
+    
+    // The schema scripts seed the row; schemas generated from the entities (tests, ddl-auto) get it here
+    @PostConstruct
+    public void init() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!repository.existsById(CollectionVersion.ID)) {
+                    repository.saveAndFlush(new CollectionVersion(CollectionVersion.ID, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance seeded it first
+        }
+        sync();
+    }
+    
+    // After commit, so a tag never names a change a concurrent reader cannot see yet
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodoChanged(TodoChangedEvent event) {
+        bump();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        bump();
+    }
+    
+    private void bump() {
+        current.updateAndGet(version -> new Version(version.stored, version.local + 1));
+        changedAt = clock.millis();
+    }
+    
+    public String etag() {
+        Version version = current.get();
+        return "\"" + version.stored + (version.local == 0 ? "" : "-" + instance + "." + version.local) +
+               "-" + LocalDate.now(clock).toEpochDay() + (searchIndex.isReady() ? "" : "-sql") + "\"";
+    }
+    
+    // False while a replica may still be missing the latest change; such responses should not be tagged
+    public boolean settled() {
+        return settleMillis == 0 || clock.millis() - changedAt >= settleMillis;
+    }
+    
+    // Publish this instance's commits as one increment and pick up everyone else's
+    @Scheduled(fixedDelayString = "${app.etag.sync-interval:PT1S}", initialDelayString = "${app.etag.sync-interval:PT1S}")
+    public synchronized void sync() {
+        Version seen = current.get();
+        Long stored;
+        try {
+            stored = transactionTemplate.execute(status -> {
+                if (seen.local > 0) {
+                    repository.increment(CollectionVersion.ID);
+                }
+                return repository.findVersion(CollectionVersion.ID).orElse(0L);
+            });
+        } catch (RuntimeException ex) {
+            // Local commits stay counted and go out with the next sync
+            logger.warn("Could not sync the collection version: {}", ex.getMessage());
+            return;
+        }
+        if (stored == null) {
+            return;
+        }
+        current.updateAndGet(version -> new Version(stored, version.local - seen.local));
+        if (stored != seen.stored) {
+            changedAt = clock.millis();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (current.get().local > 0) {
+            sync();
+        }
+    }
+    
+    // The last version read from the row, and commits made here since
+    private static final class Version {
+        final long stored;
+        final long local;
+        
+        Version(long stored, long local) {
+            this.stored = stored;
+            this.local = local;
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.dto.TodoImportStatus;
+import com.example.todoapp.dto.TodoImportStatus.RowError;
+import com.example.todoapp.dto.TodoImportStatus.State;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.repository.TodoBulkInserter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON upload into the todos table. Rows are read one at a
+ * time, validated with the rules of {@link TodoCreateRequest}, and written
+ * {@code app.import.batch-size} per transaction through {@link TodoBulkInserter}
+ * (COPY on PostgreSQL, JDBC batches elsewhere), so memory stays flat however
+ * large the upload is. Invalid rows are skipped and reported; a batch the
+ * database rejects rolls back on its own and the import carries on.
+ *
+ * <p>{@link #startImport} spools the upload to a temporary file while the
+ * request is still open and runs the import on this service's own executor:
+ * {@code app.import.concurrency} imports at a time and at most
+ * {@code app.import.queue-capacity} waiting, beyond which uploads get 503.
+ * Imports therefore never hold a request thread or a database bulkhead slot
+ * for their whole run.
+ *
+ * <p>Spooling is the trade-off for that: the request stream is not parsed as
+ * it arrives, because a servlet request body cannot outlive its request, so an
+ * upload costs its size in temporary disk space until its import finishes.
+ * Memory stays flat either way. The spool file is deleted once the import
+ * ends, whether it completed or failed, when the upload is refused or fails to
+ * copy, and for imports still queued at shutdown.
+ *
+ * <p>Queued, running and recent imports are kept in memory for the status endpoints;
+ * only the first {@code app.import.max-errors} row errors of each are kept.
+ * Every imported row publishes a CREATED event, so caches, indexes and the
+ * read model pick it up as they would a single create.
+ */
+@Service
+public class TodoImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoImportService.class);
+    
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private final TodoBulkInserter bulkInserter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int history;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final ThreadPoolExecutor executor;
+    // Insertion order, so the oldest finished imports are dropped first
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    
+    public TodoImportService(TodoBulkInserter bulkInserter, ApplicationEventPublisher eventPublisher,
+                             Validator validator, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, Clock clock, MeterRegistry meterRegistry,
+                             @Value("${app.import.batch-size:5000}") int batchSize,
+                             @Value("${app.import.max-errors:100}") int maxErrors,
+                             @Value("${app.import.history:20}") int history,
+                             @Value("${app.import.concurrency:2}") int concurrency,
+                             @Value("${app.import.queue-capacity:10}") int queueCapacity) {
+        this.bulkInserter = bulkInserter;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(TodoCreateRequest.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.history = history;
+        
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("todo-import-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory);
+        
+        this.importedRows = Counter.builder("todo.import.rows")
+            .description("Rows read by bulk imports, by outcome")
+            .tag("outcome", "imported")
+            .register(meterRegistry);
+        this.rejectedRows = Counter.builder("todo.import.rows")
+            .description("Rows read by bulk imports, by outcome")
+            .tag("outcome", "rejected")
+            .register(meterRegistry);
+    }
+    
+    // Copy the upload to a temporary file and import it in the background; returns the queued status,
+    // whose id the caller polls. The body is read completely before this returns.
+    public TodoImportStatus startImport(Format format, InputStream body, Charset charset) throws IOException {
+        Path spool = Files.createTempFile("todo-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        boolean queued = false;
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+            long bytes = Files.size(spool);
+            
+            Job job = register(format, State.QUEUED);
+            try {
+                executor.execute(new SpooledImport(job, spool, charset));
+            } catch (RejectedExecutionException ex) {
+                job.finish(State.FAILED, "Too many imports queued");
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports queued");
+            } catch (RuntimeException ex) {
+                job.finish(State.FAILED, ex.getMessage());
+                throw ex;
+            }
+            queued = true;
+            logger.info("Import {} queued ({}, {} bytes)", job.id, format, bytes);
+            return job.toStatus();
+        } finally {
+            // Once queued, the import owns the file and deletes it when it ends
+            if (!queued) {
+                deleteSpool(spool);
+            }
+        }
+    }
+    
+    private static void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException ex) {
+            logger.warn("Could not delete import spool file {}", spool, ex);
+        }
+    }
+    
+    // Import every row of the upload on the calling thread and return the finished status; an unreadable
+    // upload fails the import with an IllegalArgumentException after the batches before the bad spot have committed
+    public TodoImportStatus importTodos(Format format, Reader body) {
+        return run(register(format, State.RUNNING), body);
+    }
+    
+    private TodoImportStatus run(Job job, Reader body) {
+        job.state = State.RUNNING;
+        logger.info("Import {} started ({})", job.id, job.format);
+        try (BufferedReader reader = new BufferedReader(body)) {
+            Format format = job.format;
+            RowSource rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            List<Todo> batch = new ArrayList<>(batchSize);
+            long firstRow = 0;
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                job.rowsRead.incrementAndGet();
+                String error = row.error != null ? row.error : violations(validator.validate(row.request));
+                if (error != null) {
+                    job.reject(row.number, 1, error);
+                    rejectedRows.increment();
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    firstRow = row.number;
+                }
+                batch.add(row.request.toEntity());
+                if (batch.size() == batchSize) {
+                    write(job, batch, firstRow, row.number);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            write(job, batch, firstRow, job.rowsRead.get());
+        } catch (IOException | UncheckedIOException | IllegalArgumentException ex) {
+            job.finish(State.FAILED, ex.getMessage());
+            logger.warn("Import {} failed after {} rows: {}", job.id, job.rowsRead.get(), ex.getMessage());
+            throw new IllegalArgumentException("Import " + job.id + " failed after " + job.rowsRead.get() +
+                                               " rows: " + ex.getMessage(), ex);
+        } catch (RuntimeException ex) {
+            job.finish(State.FAILED, ex.getMessage());
+            throw ex;
+        }
+        
+        job.finish(State.COMPLETED, null);
+        logger.info("Import {} finished: {} rows, {} imported, {} rejected", job.id, job.rowsRead.get(),
+                    job.imported.get(), job.rejected.get());
+        return job.toStatus();
+    }
+    
+    // Running imports are interrupted and clean up after themselves; queued ones never start, so they are failed here
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((SpooledImport) queued).abandon();
+        }
+    }
+    
+    // Queued and running imports and the most recent finished ones, newest first
+    public List<TodoImportStatus> getImports() {
+        List<TodoImportStatus> statuses;
+        synchronized (jobs) {
+            statuses = jobs.values().stream().map(Job::toStatus).collect(Collectors.toList());
+        }
+        Collections.reverse(statuses);
+        return statuses;
+    }
+    
+    public Optional<TodoImportStatus> getImport(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id)).map(Job::toStatus);
+        }
+    }
+    
+    private Job register(Format format, State state) {
+        Job job = new Job(UUID.randomUUID().toString(), format, Instant.now(clock), state);
+        synchronized (jobs) {
+            long finished = jobs.values().stream().filter(Job::isFinished).count();
+            for (Iterator<Job> it = jobs.values().iterator(); it.hasNext() && finished >= history; ) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                    finished--;
+                }
+            }
+            jobs.put(job.id, job);
+        }
+        return job;
+    }
+    
+    // One transaction per batch; listeners see the CREATED events after it commits
+    private void write(Job job, List<Todo> todos, long firstRow, long lastRow) {
+        if (todos.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bulkInserter.insert(todos);
+                todos.forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.created(todo)));
+            });
+            job.imported.addAndGet(todos.size());
+            importedRows.increment(todos.size());
+            logger.debug("Import {}: {} rows read, {} imported, {} rejected", job.id, job.rowsRead.get(),
+                         job.imported.get(), job.rejected.get());
+        } catch (RuntimeException ex) {
+            logger.warn("Import {} batch of rows {}-{} rolled back: {}", job.id, firstRow, lastRow, ex.getMessage());
+            job.reject(firstRow, todos.size(), "Rows " + firstRow + "-" + lastRow + " rolled back with their batch of " +
+                       todos.size() + ": " + ex.getMessage());
+            rejectedRows.increment(todos.size());
+        }
+    }
+    
+    // One JSON object per line; blank lines are skipped and do not count as rows
+    private RowSource ndjsonRows(BufferedReader reader) {
+        AtomicLong number = new AtomicLong();
+        return () -> {
+            String line = reader.readLine();
+            while (line != null && line.trim().isEmpty()) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            long row = number.incrementAndGet();
+            try {
+                return Row.of(row, requestReader.readValue(line));
+            } catch (JsonProcessingException ex) {
+                return Row.failed(row, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        };
+    }
+    
+    // A header row naming the columns (description, start_date, end_date, priority, comments,
+    // collaborators, in any order and case; unknown ones are ignored) and then one todo per record
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> columns = header.stream().map(TodoImportService::columnKey).collect(Collectors.toList());
+        if (!columns.contains("description")) {
+            throw new IllegalArgumentException("CSV header has no description column: " + header);
+        }
+        
+        AtomicLong number = new AtomicLong();
+        return () -> {
+            List<String> record = records.next();
+            while (record != null && record.size() == 1 && record.get(0).trim().isEmpty()) {
+                record = records.next();
+            }
+            if (record == null) {
+                return null;
+            }
+            long row = number.incrementAndGet();
+            if (record.size() > columns.size()) {
+                return Row.failed(row, "Expected " + columns.size() + " fields but found " + record.size());
+            }
+            TodoCreateRequest request = new TodoCreateRequest();
+            List<String> errors = new ArrayList<>();
+            for (int i = 0; i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    setField(request, columns.get(i), value, errors);
+                }
+            }
+            return errors.isEmpty() ? Row.of(row, request) : Row.failed(row, String.join("; ", errors));
+        };
+    }
+    
+    private static void setField(TodoCreateRequest request, String column, String value, List<String> errors) {
+        switch (column) {
+            case "description":
+                request.setDescription(value);
+                break;
+            case "startdate":
+                request.setStartDate(parseDate("startDate", value, errors));
+                break;
+            case "enddate":
+                request.setEndDate(parseDate("endDate", value, errors));
+                break;
+            case "priority":
+                try {
+                    request.setPriority(Todo.Priority.valueOf(value.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException ex) {
+                    errors.add("priority: must be one of " + Arrays.toString(Todo.Priority.values()));
+                }
+                break;
+            case "comments":
+                request.setComments(value);
+                break;
+            case "collaborators":
+                request.setCollaborators(value);
+                break;
+            default:
+                break;
+        }
+    }
+    
+    private static LocalDate parseDate(String field, String value, List<String> errors) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            errors.add(field + ": '" + value + "' is not a yyyy-MM-dd date");
+            return null;
+        }
+    }
+    
+    // "Start Date", "start_date" and "startDate" all name the same column; a UTF-8 BOM is dropped
+    private static String columnKey(String name) {
+        return name.replace("\uFEFF", "").replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static <T> String violations(Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+    
+    // A queued import of a spooled upload; the spool file is deleted however the import ends
+    private final class SpooledImport implements Runnable {
+        private final Job job;
+        private final Path spool;
+        private final Charset charset;
+        
+        SpooledImport(Job job, Path spool, Charset charset) {
+            this.job = job;
+            this.spool = spool;
+            this.charset = charset;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                TodoImportService.this.run(job, Files.newBufferedReader(spool, charset));
+            } catch (IOException ex) {
+                job.finish(State.FAILED, ex.getMessage());
+                logger.warn("Import {} could not read its spool file: {}", job.id, ex.getMessage());
+            } catch (RuntimeException ex) {
+                // Already recorded on the job by run(); the status endpoints report it
+                logger.debug("Import {} failed", job.id, ex);
+            } finally {
+                deleteSpool(spool);
+            }
+        }
+        
+        void abandon() {
+            job.finish(State.FAILED, "Shut down before the import started");
+            deleteSpool(spool);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+    
+    private static final class Row {
+        final long number;
+        final TodoCreateRequest request;
+        final String error;
+        
+        private Row(long number, TodoCreateRequest request, String error) {
+            this.number = number;
+            this.request = request;
+            this.error = error;
+        }
+        
+        static Row of(long number, TodoCreateRequest request) {
+            return new Row(number, request, null);
+        }
+        
+        static Row failed(long number, String error) {
+            return new Row(number, null, error);
+        }
+    }
+    
+    // Progress of one import; counters are read by status requests while the import runs
+    private final class Job {
+        final String id;
+        final Format format;
+        final Instant startedAt;
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile State state;
+        volatile Instant finishedAt;
+        volatile String failure;
+        
+        Job(String id, Format format, Instant startedAt, State state) {
+            this.id = id;
+            this.format = format;
+            this.startedAt = startedAt;
+            this.state = state;
+        }
+        
+        boolean isFinished() {
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+        
+        void reject(long row, int rows, String message) {
+            rejected.addAndGet(rows);
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+        
+        void finish(State finalState, String failureMessage) {
+            failure = failureMessage;
+            finishedAt = Instant.now(clock);
+            state = finalState;
+        }
+        
+        TodoImportStatus toStatus() {
+            List<RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return new TodoImportStatus(id, format.name(), state, startedAt, finishedAt, rowsRead.get(),
+                                        imported.get(), rejected.get(), failure, errorsCopy);
+        }
+    }
+}
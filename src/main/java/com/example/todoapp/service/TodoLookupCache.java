@@ -0,0 +1,42 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.config.CacheConfig;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.readmodel.TodoReadModel;
+import com.example.todoapp.repository.TodoRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of single todos for the detail endpoints of both APIs.
+ *
+ * <p>Entries are immutable snapshots keyed by the collection version as well
+ * as the id, so every commit, here or on another instance once it is synced,
+ * moves readers to fresh keys instead of relying on eviction. A reader that
+ * loaded a row just before a commit can only store it under the version that
+ * commit retired. The version carries the date, so nothing cached survives
+ * midnight. While the version is not settled (read replicas may still lack
+ * the latest change) the cache is bypassed. Callers turn the snapshot into a
+ * fresh Todo or TodoResponse, with date flags computed per request.
+ */
+@Component
+public class TodoLookupCache {
+    
+    private final TodoRepository todoRepository;
+    private final TodoReadModel readModel;
+    
+    public TodoLookupCache(TodoRepository todoRepository, TodoReadModel readModel) {
+        this.todoRepository = todoRepository;
+        this.readModel = readModel;
+    }
+    
+    // Null when the todo does not exist; misses are not cached
+    @Cacheable(cacheNames = CacheConfig.TODOS, key = "@todoCollectionVersion.etag() + ':' + #id",
+               condition = "@todoCollectionVersion.settled()", unless = "#result == null")
+    public TodoSnapshot find(Long id) {
+        if (readModel.isReady()) {
+            return readModel.findById(id);
+        }
+        return todoRepository.findById(id).map(TodoSnapshot::of).orElse(null);
+    }
+}
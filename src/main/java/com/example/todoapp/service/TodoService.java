@@ -1,125 +1,275 @@
 package com.example.todoapp.service;
 
 import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.readmodel.TodoReadModel;
 import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.search.TodoDueDateIndex;
+import com.example.todoapp.search.TodoSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TodoService {
     
+    // Keep IN lists within what every supported database accepts
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    
     @Autowired
     private TodoRepository todoRepository;
     
+    @Autowired
+    private TodoSearchIndex searchIndex;
+    
+    @Autowired
+    private TodoDueDateIndex dueDateIndex;
+    
+    @Autowired
+    private TodoReadModel readModel;
+    
+    @Autowired
+    private TodoArchiveService archiveService;
+    
+    @Autowired
+    private TodoLookupCache lookupCache;
+    
+    @Autowired
+    private Clock clock;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     // Create a new todo
     public Todo createTodo(Todo todo) {
-        return todoRepository.save(todo);
+        Todo savedTodo = todoRepository.save(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(savedTodo));
+        return savedTodo;
     }
     
-    // Get all todos
+    // Get all todos (the finders below read from the read model when it is enabled and loaded)
     public List<Todo> getAllTodos() {
+        if (readModel.isReady()) {
+            return toTodos(readModel.findAll());
+        }
         return todoRepository.findAll();
     }
     
     // Get todos ordered by priority and date
     public List<Todo> getAllTodosOrdered() {
+        if (readModel.isReady()) {
+            return toTodos(readModel.findAllOrderedByPriorityAndDate());
+        }
         return todoRepository.findAllOrderedByPriorityAndDate();
     }
     
-    // Get todo by ID
+    // Hand every todo to the consumer one at a time, detaching each after use so memory stays flat
+    @Transactional(readOnly = true)
+    public void streamTodos(boolean orderedByPriority, Consumer<Todo> consumer) {
+        try (Stream<Todo> todos = orderedByPriority
+                ? todoRepository.streamAllOrderedByPriorityAndDate()
+                : todoRepository.streamAll()) {
+            todos.forEach(todo -> {
+                consumer.accept(todo);
+                entityManager.detach(todo);
+            });
+        }
+    }
+    
+    // Get todo by ID; a detached copy of the cached snapshot, so callers never share an instance
     public Optional<Todo> getTodoById(Long id) {
-        return todoRepository.findById(id);
+        return Optional.ofNullable(lookupCache.find(id)).map(TodoSnapshot::toTodo);
+    }
+    
+    // The todo as committed on the primary, bypassing the cache and the replicas; for callers about to write it
+    @Transactional
+    public Optional<TodoSnapshot> getCommittedTodo(Long id) {
+        return todoRepository.findById(id).map(TodoSnapshot::of);
     }
     
-    // Update todo
+    // Update todo; transactional so the todo is loaded from the primary it is written to
+    @Transactional
     public Todo updateTodo(Long id, Todo todoDetails) {
+        return applyChanges(id, todo -> copyDetails(todoDetails, todo));
+    }
+    
+    // Load, change and save one todo in a transaction, publishing a single update; null if it does not exist.
+    // An archived todo the changes un-complete is restored first; other archived todos count as missing
+    @Transactional
+    public Todo applyChanges(Long id, Consumer<Todo> changes) {
         Optional<Todo> optionalTodo = todoRepository.findById(id);
+        if (!optionalTodo.isPresent()) {
+            optionalTodo = Optional.ofNullable(archiveService.restoreIfReopened(id, changes));
+        }
         if (optionalTodo.isPresent()) {
             Todo todo = optionalTodo.get();
+            TodoSnapshot before = TodoSnapshot.of(todo);
             
-            if (todoDetails.getDescription() != null) {
-                todo.setDescription(todoDetails.getDescription());
-            }
-            if (todoDetails.getStartDate() != null) {
-                todo.setStartDate(todoDetails.getStartDate());
-            }
-            if (todoDetails.getEndDate() != null) {
-                todo.setEndDate(todoDetails.getEndDate());
-            }
-            if (todoDetails.getPriority() != null) {
-                todo.setPriority(todoDetails.getPriority());
-            }
-            if (todoDetails.getComments() != null) {
-                todo.setComments(todoDetails.getComments());
-            }
-            if (todoDetails.getCollaborators() != null) {
-                todo.setCollaborators(todoDetails.getCollaborators());
-            }
-            if (todoDetails.getCompleted() != null) {
-                todo.setCompleted(todoDetails.getCompleted());
-            }
+            changes.accept(todo);
             
-            return todoRepository.save(todo);
+            Todo savedTodo = todoRepository.save(todo);
+            eventPublisher.publishEvent(TodoChangedEvent.updated(before, savedTodo));
+            return savedTodo;
         }
         return null;
     }
     
-    // Delete todo
+    // Copy the non-null fields of a PUT body onto the todo
+    public static void copyDetails(Todo todoDetails, Todo todo) {
+        if (todoDetails.getDescription() != null) {
+            todo.setDescription(todoDetails.getDescription());
+        }
+        if (todoDetails.getStartDate() != null) {
+            todo.setStartDate(todoDetails.getStartDate());
+        }
+        if (todoDetails.getEndDate() != null) {
+            todo.setEndDate(todoDetails.getEndDate());
+        }
+        if (todoDetails.getPriority() != null) {
+            todo.setPriority(todoDetails.getPriority());
+        }
+        if (todoDetails.getComments() != null) {
+            todo.setComments(todoDetails.getComments());
+        }
+        if (todoDetails.getCollaborators() != null) {
+            todo.setCollaborators(todoDetails.getCollaborators());
+        }
+        if (todoDetails.getCompleted() != null) {
+            todo.setCompleted(todoDetails.getCompleted());
+        }
+    }
+    
+    // Delete todo; transactional so the sync tombstone commits with it
+    @Transactional
     public boolean deleteTodo(Long id) {
-        if (todoRepository.existsById(id)) {
-            todoRepository.deleteById(id);
+        Optional<Todo> todo = todoRepository.findById(id);
+        if (todo.isPresent()) {
+            todoRepository.delete(todo.get());
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(todo.get()));
             return true;
         }
-        return false;
+        return archiveService.deleteIfArchived(id);
     }
     
     // Get todos by completion status
     public List<Todo> getTodosByStatus(Boolean completed) {
+        if (readModel.isReady() && completed != null) {
+            return toTodos(readModel.findByCompleted(completed));
+        }
         return todoRepository.findByCompleted(completed);
     }
     
     // Get todos by priority
     public List<Todo> getTodosByPriority(Todo.Priority priority) {
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByPriority(priority));
+        }
         return todoRepository.findByPriority(priority);
     }
     
-    // Search todos by description
+    // Search todos by description and comments, best match first
     public List<Todo> searchTodosByDescription(String description) {
-        return todoRepository.findByDescriptionContainingIgnoreCase(description);
+        if (!searchIndex.isReady()) {
+            return todoRepository.findByDescriptionOrCommentsContaining(description);
+        }
+        
+        List<Long> rankedIds = searchIndex.search(description);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findAllById(rankedIds));
+        }
+        // Bounded IN lists however many todos match
+        Map<Long, Todo> todosById = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i += MAX_IN_LIST_SIZE) {
+            todoRepository.findAllById(rankedIds.subList(i, Math.min(i + MAX_IN_LIST_SIZE, rankedIds.size())))
+                .forEach(todo -> todosById.put(todo.getId(), todo));
+        }
+        return rankedIds.stream()
+            .map(todosById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
     
-    // Get todos by collaborator
+    // Get todos by exact collaborator name
     public List<Todo> getTodosByCollaborator(String collaborator) {
-        return todoRepository.findByCollaboratorsContainingIgnoreCase(collaborator);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByCollaboratorName(Todo.normalizeCollaborator(collaborator)));
+        }
+        return todoRepository.findByCollaboratorName(Todo.normalizeCollaborator(collaborator));
+    }
+    
+    // Get todos with a collaborator whose name starts with the prefix
+    public List<Todo> getTodosByCollaboratorPrefix(String prefix) {
+        String pattern = CollaboratorQueries.prefixPattern(prefix);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByCollaboratorPrefix(Todo.normalizeCollaborator(prefix)));
+        }
+        return todoRepository.findByCollaboratorNameLike(pattern);
     }
     
-    // Get overdue todos
+    // Get overdue todos, from the due-date index once it is built
     public List<Todo> getOverdueTodos() {
-        return todoRepository.findOverdueTodos();
+        LocalDate today = LocalDate.now(clock);
+        if (dueDateIndex.isReady()) {
+            return toTodos(dueDateIndex.overdue(today));
+        }
+        return todoRepository.findOverdueTodos(today);
     }
     
-    // Get todos due today
+    // Get todos due today, from the due-date index once it is built
     public List<Todo> getTodosDueToday() {
-        return todoRepository.findTodosDueToday();
+        LocalDate today = LocalDate.now(clock);
+        if (dueDateIndex.isReady()) {
+            return toTodos(dueDateIndex.dueOn(today));
+        }
+        return todoRepository.findTodosDueOn(today);
     }
     
     // Get todos by date range
     public List<Todo> getTodosByDateRange(LocalDate startDate, LocalDate endDate) {
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByDateRange(startDate, endDate));
+        }
         return todoRepository.findByDateRange(startDate, endDate);
     }
     
-    // Toggle todo completion status
+    // Toggle todo completion status with a single UPDATE, then read back the new state
+    @Transactional
     public Todo toggleTodoCompletion(Long id) {
-        Optional<Todo> optionalTodo = todoRepository.findById(id);
-        if (optionalTodo.isPresent()) {
-            Todo todo = optionalTodo.get();
-            todo.setCompleted(!todo.getCompleted());
-            return todoRepository.save(todo);
+        if (todoRepository.toggleCompleted(id, LocalDateTime.now()) == 0) {
+            // Archived todos are completed, so toggling one reopens it
+            if (archiveService.restoreIfReopened(id, todo -> todo.setCompleted(false)) == null
+                    || todoRepository.toggleCompleted(id, LocalDateTime.now()) == 0) {
+                return null;
+            }
         }
-        return null;
+        Todo todo = todoRepository.findById(id).orElse(null);
+        if (todo != null) {
+            eventPublisher.publishEvent(TodoChangedEvent.toggled(todo));
+        }
+        return todo;
+    }
+    
+    private static List<Todo> toTodos(List<TodoSnapshot> snapshots) {
+        return snapshots.stream().map(TodoSnapshot::toTodo).collect(Collectors.toList());
     }
 }
@@ -1,21 +1,55 @@
 package com.example.todoapp.service;
 
+import com.example.todoapp.dto.CursorPageResponse;
+import com.example.todoapp.dto.TodoBulkToggleRequest;
+import com.example.todoapp.dto.TodoBulkToggleResponse;
 import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.dto.TodoResponse;
+import com.example.todoapp.dto.TodoSummary;
 import com.example.todoapp.dto.TodoUpdateRequest;
 import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import com.example.todoapp.readmodel.TodoReadModel;
 import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.search.TodoDueDateIndex;
+import com.example.todoapp.search.TodoSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.OptimisticLockException;
+import javax.persistence.criteria.Predicate;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -23,10 +57,40 @@ public class TodoServiceModern {
     
     private static final Logger logger = LoggerFactory.getLogger(TodoServiceModern.class);
     
+    private static final Sort CURSOR_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    
+    // Keep IN lists within what every supported database accepts
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    
+    // Set on sorted search pages that only cover the best app.search.max-results matches; holds the full count
+    public static final String SEARCH_TRUNCATED_HEADER = "X-Search-Truncated";
+    
     private final TodoRepository todoRepository;
+    private final TodoSearchIndex searchIndex;
+    private final TodoDueDateIndex dueDateIndex;
+    private final TodoReadModel readModel;
+    private final TodoArchiveService archiveService;
+    private final TodoLookupCache lookupCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int maxSearchResults;
     
-    public TodoServiceModern(TodoRepository todoRepository) {
+    public TodoServiceModern(TodoRepository todoRepository, TodoSearchIndex searchIndex,
+                             TodoDueDateIndex dueDateIndex, TodoReadModel readModel,
+                             TodoArchiveService archiveService, TodoLookupCache lookupCache,
+                             ApplicationEventPublisher eventPublisher, Clock clock, @Value("${app.search.max-results:1000}") int maxSearchResults) {
+        if (maxSearchResults < 1 || maxSearchResults > 10000) {
+            throw new IllegalArgumentException("app.search.max-results must be between 1 and 10000: " + maxSearchResults);
+        }
         this.todoRepository = todoRepository;
+        this.searchIndex = searchIndex;
+        this.dueDateIndex = dueDateIndex;
+        this.readModel = readModel;
+        this.archiveService = archiveService;
+        this.lookupCache = lookupCache;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.maxSearchResults = maxSearchResults;
     }
     
     @Transactional
@@ -35,16 +99,107 @@ public class TodoServiceModern {
         
         Todo todo = request.toEntity();
         Todo savedTodo = todoRepository.save(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.created(savedTodo));
         
         logger.info("Created todo with ID: {}", savedTodo.getId());
         return savedTodo;
     }
     
-    public Page<Todo> getAllTodos(String search, String filter, String sort, Pageable pageable) {
-        logger.debug("Fetching todos with search: {}, filter: {}, sort: {}", search, filter, sort);
+    public Page<Todo> getAllTodos(String search, String filter, Pageable pageable) {
+        logger.debug("Fetching todos with search: {}, filter: {}, sort: {}", search, filter, pageable.getSort());
+        
+        // Unsorted searches are served in relevance order straight from the index
+        if (hasText(search) && searchIndex.isReady() && pageable.getSort().isUnsorted()) {
+            Function<List<Long>, List<Todo>> loader = readModel.isReady()
+                ? ids -> toTodos(readModel.findAllById(ids))
+                : todoRepository::findAllById;
+            return searchTodos(search, filter, pageable, loader, Todo::getId);
+        }
         
         Specification<Todo> spec = buildSpecification(search, filter);
-        return todoRepository.findAll(spec, pageable);
+        return todoRepository.findAll(spec, TodoSort.toStoredOrder(pageable));
+    }
+    
+    // Same page as getAllTodos, read as summaries without the TEXT columns
+    public Page<TodoSummary> getAllTodoSummaries(String search, String filter, Pageable pageable) {
+        logger.debug("Fetching todo summaries with search: {}, filter: {}, sort: {}", search, filter, pageable.getSort());
+        
+        if (hasText(search) && searchIndex.isReady() && pageable.getSort().isUnsorted()) {
+            Function<List<Long>, List<TodoSummary>> loader = readModel.isReady()
+                ? ids -> toSummaries(readModel.findAllById(ids))
+                : ids -> todoRepository.findSummaries(idIn(ids), Pageable.unpaged());
+            return searchTodos(search, filter, pageable, loader, TodoSummary::getId);
+        }
+        
+        Specification<Todo> spec = buildSpecification(search, filter);
+        Pageable storedOrder = TodoSort.toStoredOrder(pageable);
+        List<TodoSummary> content = todoRepository.findSummaries(spec, storedOrder);
+        return PageableExecutionUtils.getPage(content, storedOrder, () -> todoRepository.count(spec));
+    }
+    
+    public CursorPageResponse<Todo> getTodosAfter(String search, String filter, String after,
+                                                  int limit, boolean includeCount) {
+        logger.debug("Fetching todos with search: {}, filter: {}, after: {}, limit: {}", search, filter, after, limit);
+        
+        return sliceAfter(search, filter, after, limit, includeCount,
+            (spec, size) -> todoRepository.findSlice(spec, CURSOR_SORT, size),
+            todo -> new TodoCursor(todo.getCreatedAt(), todo.getId()));
+    }
+    
+    public CursorPageResponse<TodoSummary> getTodoSummariesAfter(String search, String filter, String after,
+                                                                 int limit, boolean includeCount) {
+        logger.debug("Fetching todo summaries with search: {}, filter: {}, after: {}, limit: {}", search, filter, after, limit);
+        
+        return sliceAfter(search, filter, after, limit, includeCount,
+            (spec, size) -> todoRepository.findSummaries(spec, PageRequest.of(0, size, CURSOR_SORT)),
+            summary -> new TodoCursor(summary.getCreatedAt(), summary.getId()));
+    }
+    
+    private <T> CursorPageResponse<T> sliceAfter(String search, String filter, String after, int limit,
+                                                 boolean includeCount,
+                                                 BiFunction<Specification<Todo>, Integer, List<T>> fetch,
+                                                 Function<T, TodoCursor> cursorOf) {
+        Specification<Todo> keyset = after != null && !after.isEmpty() ? keysetAfter(TodoCursor.decode(after)) : null;
+        if (hasText(search) && searchIndex.isReady()) {
+            return searchSliceAfter(searchMatches(search, filter), keyset, limit, includeCount, fetch, cursorOf);
+        }
+        
+        Specification<Todo> spec = buildSpecification(search, filter);
+        Specification<Todo> pageSpec = keyset == null ? spec : spec.and(keyset);
+        
+        // Fetch one extra row to learn whether another page exists
+        List<T> rows = fetch.apply(pageSpec, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = cursorOf.apply(content.get(content.size() - 1)).encode();
+        }
+        
+        Long total = includeCount ? todoRepository.count(spec) : null;
+        return new CursorPageResponse<>(content, nextCursor, hasNext, total);
+    }
+    
+    // Keyset page over any number of search matches: each chunk of ids yields its first limit + 1 rows
+    // after the cursor, and the page is the first limit + 1 of their merge in cursor order
+    private <T> CursorPageResponse<T> searchSliceAfter(List<Long> matches, Specification<Todo> keyset, int limit,
+                                                       boolean includeCount,
+                                                       BiFunction<Specification<Todo>, Integer, List<T>> fetch,
+                                                       Function<T, TodoCursor> cursorOf) {
+        List<T> rows = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i += MAX_IN_LIST_SIZE) {
+            Specification<Todo> chunk = idIn(matches.subList(i, Math.min(i + MAX_IN_LIST_SIZE, matches.size())));
+            rows.addAll(fetch.apply(keyset == null ? chunk : chunk.and(keyset), limit + 1));
+        }
+        rows.sort(Comparator.comparing((T row) -> cursorOf.apply(row).getSortKey(),
+                                       Comparator.nullsFirst(Comparator.reverseOrder()))
+            .thenComparing(row -> cursorOf.apply(row).getId(), Comparator.reverseOrder()));
+        
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(content, nextCursor, hasNext, includeCount ? (long) matches.size() : null);
     }
     
     public Todo getTodoById(Long id) {
@@ -54,36 +209,50 @@ public class TodoServiceModern {
             .orElseThrow(() -> new EntityNotFoundException("Todo not found with ID: " + id));
     }
     
+    // Detail view from the version-keyed snapshot cache; date flags are computed for this request
+    public TodoResponse getTodoResponseById(Long id) {
+        TodoSnapshot todo = lookupCache.find(id);
+        if (todo == null) {
+            throw new EntityNotFoundException("Todo not found with ID: " + id);
+        }
+        return TodoResponse.from(todo.toTodo(), LocalDate.now(clock));
+    }
+    
+    public List<Todo> getTodosByIds(List<Long> ids) {
+        logger.debug("Fetching {} todos by ID", ids.size());
+        
+        if (readModel.isReady()) {
+            return toTodos(readModel.findAllById(ids.stream().distinct().collect(Collectors.toList())));
+        }
+        
+        // One IN query; results follow the requested order and skip unknown ids
+        Map<Long, Todo> todosById = todoRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        return ids.stream()
+            .distinct()
+            .map(todosById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
     @Transactional
     public Todo updateTodo(Long id, TodoUpdateRequest request) {
         logger.debug("Updating todo with ID: {}", id);
         
-        Todo existingTodo = getTodoById(id);
+        // An archived todo is restored when the request un-completes it, and is otherwise not found
+        Todo existingTodo = todoRepository.findById(id)
+            .orElseGet(() -> archiveService.restoreIfReopened(id, request::applyTo));
+        if (existingTodo == null) {
+            throw new EntityNotFoundException("Todo not found with ID: " + id);
+        }
+        TodoSnapshot before = TodoSnapshot.of(existingTodo);
         
         // Update fields if provided
-        if (request.getDescription() != null) {
-            existingTodo.setDescription(request.getDescription());
-        }
-        if (request.getStartDate() != null) {
-            existingTodo.setStartDate(request.getStartDate());
-        }
-        if (request.getEndDate() != null) {
-            existingTodo.setEndDate(request.getEndDate());
-        }
-        if (request.getPriority() != null) {
-            existingTodo.setPriority(request.getPriority());
-        }
-        if (request.getComments() != null) {
-            existingTodo.setComments(request.getComments());
-        }
-        if (request.getCollaborators() != null) {
-            existingTodo.setCollaborators(request.getCollaborators());
-        }
-        if (request.getCompleted() != null) {
-            existingTodo.setCompleted(request.getCompleted());
-        }
+        request.applyTo(existingTodo);
         
-        Todo updatedTodo = todoRepository.save(existingTodo);
+        // Flush so @PreUpdate has run before the change is captured for listeners
+        Todo updatedTodo = todoRepository.saveAndFlush(existingTodo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(before, updatedTodo));
         logger.info("Updated todo with ID: {}", updatedTodo.getId());
         
         return updatedTodo;
@@ -93,11 +262,13 @@ public class TodoServiceModern {
     public void deleteTodo(Long id) {
         logger.debug("Deleting todo with ID: {}", id);
         
-        if (!todoRepository.existsById(id)) {
+        Optional<Todo> todo = todoRepository.findById(id);
+        if (todo.isPresent()) {
+            todoRepository.delete(todo.get());
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(todo.get()));
+        } else if (!archiveService.deleteIfArchived(id)) {
             throw new EntityNotFoundException("Todo not found with ID: " + id);
         }
-        
-        todoRepository.deleteById(id);
         logger.info("Deleted todo with ID: {}", id);
     }
     
@@ -105,71 +276,389 @@ public class TodoServiceModern {
     public Todo toggleTodoCompletion(Long id) {
         logger.debug("Toggling completion for todo with ID: {}", id);
         
-        Todo todo = getTodoById(id);
-        todo.setCompleted(!todo.getCompleted());
+        // Single UPDATE flips the flag in the database, so concurrent clicks cannot lose a toggle
+        if (todoRepository.toggleCompleted(id, LocalDateTime.now(clock)) == 0) {
+            // Archived todos are completed, so toggling one reopens it
+            if (archiveService.restoreIfReopened(id, todo -> todo.setCompleted(false)) == null
+                    || todoRepository.toggleCompleted(id, LocalDateTime.now(clock)) == 0) {
+                throw new EntityNotFoundException("Todo not found with ID: " + id);
+            }
+        }
         
-        Todo updatedTodo = todoRepository.save(todo);
+        Todo updatedTodo = getTodoById(id);
+        eventPublisher.publishEvent(TodoChangedEvent.toggled(updatedTodo));
         logger.info("Toggled completion for todo with ID: {} to {}", id, updatedTodo.getCompleted());
         
         return updatedTodo;
     }
     
+    @Transactional
+    public TodoBulkToggleResponse toggleTodos(TodoBulkToggleRequest request) {
+        logger.debug("Bulk toggling todos with filter: {}, completed: {}", request.getFilter(), request.getCompleted());
+        
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == hasText(request.getFilter())) {
+            throw new IllegalArgumentException("Provide either 'ids' or 'filter'");
+        }
+        
+        if (!byIds) {
+            return toggleByFilter(request.getFilter(), request.getCompleted());
+        }
+        
+        List<Long> ids = findIdsToToggle(request.getIds(), request.getCompleted());
+        if (ids.isEmpty()) {
+            return new TodoBulkToggleResponse(0, ids);
+        }
+        
+        LocalDateTime now = LocalDateTime.now(clock);
+        int updated = 0;
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + MAX_IN_LIST_SIZE, ids.size()));
+            updated += request.getCompleted() == null
+                ? todoRepository.toggleCompletedByIds(chunk, now)
+                : todoRepository.setCompletedByIds(chunk, request.getCompleted(), now);
+        }
+        
+        // Reload once so listeners see the committed state of every changed todo; each one was flipped
+        List<Todo> changed = todoRepository.findAllById(ids);
+        changed.forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.toggled(todo)));
+        logger.info("Bulk toggled {} todos", updated);
+        
+        return new TodoBulkToggleResponse(updated, changed.stream().map(Todo::getId).collect(Collectors.toList()));
+    }
+    
+    private List<Long> findIdsToToggle(List<Long> requestedIds, Boolean completed) {
+        List<Long> ids = requestedIds.stream().distinct().collect(Collectors.toList());
+        restoreReopenedArchived(ids, completed);
+        if (completed == null) {
+            return ids;
+        }
+        // Only the todos not already in the target state change, so only they are updated
+        return todoRepository.findIds(idIn(ids).and(notCompleted(completed)));
+    }
+    
+    // Archived todos are completed, so flipping one or setting it pending reopens it: those move back to the
+    // live table (still completed, as archived) for the UPDATE that follows to change
+    private void restoreReopenedArchived(List<Long> ids, Boolean completed) {
+        if (Boolean.TRUE.equals(completed)) {
+            return;
+        }
+        Set<Long> live = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST_SIZE) {
+            live.addAll(todoRepository.findIds(idIn(ids.subList(i, Math.min(i + MAX_IN_LIST_SIZE, ids.size())))));
+        }
+        ids.stream()
+            .filter(id -> !live.contains(id))
+            .forEach(id -> archiveService.restoreIfReopened(id, todo -> todo.setCompleted(false)));
+    }
+    
+    // One UPDATE over the filter; the changed ids are never loaded, so listeners get a single bulk event
+    private TodoBulkToggleResponse toggleByFilter(String filter, Boolean completed) {
+        Specification<Todo> spec = buildFilterSpecification(filter);
+        if (spec == null && !"all".equalsIgnoreCase(filter)) {
+            throw new IllegalArgumentException("Unknown filter: " + filter);
+        }
+        spec = Specification.where(spec);
+        
+        // Setting a target state only needs to touch the todos not already in it
+        if (completed != null) {
+            spec = spec.and(notCompleted(completed));
+        }
+        int updated = todoRepository.updateCompleted(spec, completed, LocalDateTime.now(clock));
+        if (updated > 0) {
+            eventPublisher.publishEvent(new TodosBulkChangedEvent(filter, completed, updated));
+        }
+        logger.info("Bulk toggled {} todos matching filter {}", updated, filter);
+        
+        return new TodoBulkToggleResponse(updated, null);
+    }
+    
+    private static Specification<Todo> notCompleted(boolean completed) {
+        return (root, query, cb) -> cb.or(
+            cb.isNull(root.get("completed")),
+            cb.notEqual(root.get("completed"), completed)
+        );
+    }
+    
+    // The finder views below are answered by the read model when it is enabled and loaded
     public List<Todo> getTodosByPriority(Todo.Priority priority) {
         logger.debug("Fetching todos with priority: {}", priority);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByPriority(priority));
+        }
         return todoRepository.findByPriority(priority);
     }
     
     public List<Todo> getTodosByDateRange(LocalDate startDate, LocalDate endDate) {
         logger.debug("Fetching todos between {} and {}", startDate, endDate);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByDateRange(startDate, endDate));
+        }
         return todoRepository.findByDateRange(startDate, endDate);
     }
     
-    public List<Todo> getOverdueTodos() {
-        logger.debug("Fetching overdue todos");
-        return todoRepository.findOverdueTodos();
+    // The due-date views are served from the in-memory index once it is built
+    public List<Todo> getOverdueTodos(LocalDate today) {
+        logger.debug("Fetching todos overdue on {}", today);
+        if (dueDateIndex.isReady()) {
+            return toTodos(dueDateIndex.overdue(today));
+        }
+        return todoRepository.findOverdueTodos(today);
     }
     
-    public List<Todo> getTodosDueToday() {
-        logger.debug("Fetching todos due today");
-        return todoRepository.findTodosDueToday();
+    public List<Todo> getTodosDueToday(LocalDate today) {
+        logger.debug("Fetching todos due on {}", today);
+        if (dueDateIndex.isReady()) {
+            return toTodos(dueDateIndex.dueOn(today));
+        }
+        return todoRepository.findTodosDueOn(today);
+    }
+    
+    public List<Todo> getTodosDueSoon(LocalDate today, int days) {
+        logger.debug("Fetching todos due within {} days of {}", days, today);
+        if (dueDateIndex.isReady()) {
+            return toTodos(dueDateIndex.dueWithin(today, days));
+        }
+        return todoRepository.findPendingTodosDueBefore(today.plusDays(days + 1L));
     }
     
     public List<Todo> getTodosByCollaborator(String collaborator) {
         logger.debug("Fetching todos for collaborator: {}", collaborator);
-        return todoRepository.findByCollaboratorsContainingIgnoreCase(collaborator);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByCollaboratorName(Todo.normalizeCollaborator(collaborator)));
+        }
+        return todoRepository.findByCollaboratorName(Todo.normalizeCollaborator(collaborator));
+    }
+    
+    public List<Todo> getTodosByCollaboratorPrefix(String prefix) {
+        logger.debug("Fetching todos for collaborator prefix: {}", prefix);
+        String pattern = CollaboratorQueries.prefixPattern(prefix);
+        if (readModel.isReady()) {
+            return toTodos(readModel.findByCollaboratorPrefix(Todo.normalizeCollaborator(prefix)));
+        }
+        return todoRepository.findByCollaboratorNameLike(pattern);
+    }
+    
+    public List<TodoSummary> getTodoSummariesByPriority(Todo.Priority priority) {
+        if (readModel.isReady()) {
+            return toSummaries(readModel.findByPriority(priority));
+        }
+        return todoRepository.findSummariesByPriority(priority);
+    }
+    
+    public List<TodoSummary> getTodoSummariesByDateRange(LocalDate startDate, LocalDate endDate) {
+        if (readModel.isReady()) {
+            return toSummaries(readModel.findByDateRange(startDate, endDate));
+        }
+        return todoRepository.findSummariesByDateRange(startDate, endDate);
+    }
+    
+    public List<TodoSummary> getOverdueTodoSummaries(LocalDate today) {
+        if (dueDateIndex.isReady()) {
+            return toSummaries(dueDateIndex.overdue(today));
+        }
+        return todoRepository.findOverdueSummaries(today);
+    }
+    
+    public List<TodoSummary> getTodoSummariesDueToday(LocalDate today) {
+        if (dueDateIndex.isReady()) {
+            return toSummaries(dueDateIndex.dueOn(today));
+        }
+        return todoRepository.findSummariesDueOn(today);
+    }
+    
+    public List<TodoSummary> getTodoSummariesDueSoon(LocalDate today, int days) {
+        if (dueDateIndex.isReady()) {
+            return toSummaries(dueDateIndex.dueWithin(today, days));
+        }
+        return todoRepository.findPendingSummariesDueBefore(today.plusDays(days + 1L));
+    }
+    
+    public List<TodoSummary> getTodoSummariesByCollaborator(String collaborator) {
+        if (readModel.isReady()) {
+            return toSummaries(readModel.findByCollaboratorName(Todo.normalizeCollaborator(collaborator)));
+        }
+        return todoRepository.findSummariesByCollaboratorName(Todo.normalizeCollaborator(collaborator));
+    }
+    
+    public List<TodoSummary> getTodoSummariesByCollaboratorPrefix(String prefix) {
+        String pattern = CollaboratorQueries.prefixPattern(prefix);
+        if (readModel.isReady()) {
+            return toSummaries(readModel.findByCollaboratorPrefix(Todo.normalizeCollaborator(prefix)));
+        }
+        return todoRepository.findSummariesByCollaboratorNameLike(pattern);
+    }
+    
+    // One page of search results in relevance order; `loader` fetches the page's rows by id
+    private <T> Page<T> searchTodos(String search, String filter, Pageable pageable,
+                                    Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> rankedIds = searchMatches(search, filter);
+        
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+        
+        Map<Long, T> rowsById = loader.apply(pageIds).stream()
+            .collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> content = pageIds.stream()
+            .map(rowsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        
+        return new PageImpl<>(content, pageable, rankedIds.size());
+    }
+    
+    // Every todo matching the search and the filter, best match first. The filter runs over all matches
+    // (in memory, or one bounded IN query per chunk of ids) before anything is paged or capped.
+    private List<Long> searchMatches(String search, String filter) {
+        List<Long> rankedIds = searchIndex.search(search);
+        
+        Specification<Todo> filterSpec = buildFilterSpecification(filter);
+        java.util.function.Predicate<TodoSnapshot> filterCondition = filterCondition(filter);
+        if (filterCondition != null && readModel.isReady()) {
+            return readModel.filterIds(rankedIds, filterCondition);
+        }
+        if (filterSpec == null || rankedIds.isEmpty()) {
+            return rankedIds;
+        }
+        Set<Long> matching = new HashSet<>();
+        for (int i = 0; i < rankedIds.size(); i += MAX_IN_LIST_SIZE) {
+            List<Long> chunk = rankedIds.subList(i, Math.min(i + MAX_IN_LIST_SIZE, rankedIds.size()));
+            matching.addAll(todoRepository.findIds(filterSpec.and(idIn(chunk))));
+        }
+        return rankedIds.stream()
+            .filter(matching::contains)
+            .collect(Collectors.toList());
+    }
+    
+    // Rows strictly after the cursor in (createdAt DESC, id DESC) order
+    private Specification<Todo> keysetAfter(TodoCursor cursor) {
+        return (root, query, cb) -> cb.or(
+            cb.lessThan(root.get("createdAt"), cursor.getSortKey()),
+            cb.and(
+                cb.equal(root.get("createdAt"), cursor.getSortKey()),
+                cb.lessThan(root.get("id"), cursor.getId())
+            )
+        );
     }
     
     private Specification<Todo> buildSpecification(String search, String filter) {
         Specification<Todo> spec = Specification.where(null);
         
-        if (search != null && !search.trim().isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.like(cb.lower(root.get("description")), "%" + search.toLowerCase() + "%"));
+        if (hasText(search)) {
+            if (searchIndex.isReady()) {
+                // Sorted pages bind the matches into SQL, so only the best max-results of them (after the
+                // filter) are sorted; the response says how many there were in all
+                List<Long> matches = searchMatches(search, filter);
+                if (matches.size() > maxSearchResults) {
+                    reportTruncatedSearch(matches.size());
+                    matches = matches.subList(0, maxSearchResults);
+                }
+                return idIn(matches);
+            } else {
+                // Same fields the index covers, but matched as substrings rather than word prefixes, so
+                // this can return more rows than the index will once it is ready
+                String pattern = "%" + search.toLowerCase() + "%";
+                spec = spec.and((root, query, cb) -> cb.or(
+                    cb.like(cb.lower(root.get("description")), pattern),
+                    cb.like(cb.lower(root.get("comments")), pattern)));
+            }
         }
         
+        Specification<Todo> filterSpec = buildFilterSpecification(filter);
+        return filterSpec == null ? spec : spec.and(filterSpec);
+    }
+    
+    private static void reportTruncatedSearch(int matches) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(SEARCH_TRUNCATED_HEADER, Integer.toString(matches));
+            }
+        }
+    }
+    
+    private Specification<Todo> idIn(List<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids.isEmpty()) {
+                return cb.disjunction();
+            }
+            List<Predicate> chunks = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += MAX_IN_LIST_SIZE) {
+                chunks.add(root.get("id").in(ids.subList(i, Math.min(i + MAX_IN_LIST_SIZE, ids.size()))));
+            }
+            return cb.or(chunks.toArray(new Predicate[0]));
+        };
+    }
+    
+    private static List<Todo> toTodos(List<TodoSnapshot> snapshots) {
+        return snapshots.stream().map(TodoSnapshot::toTodo).collect(Collectors.toList());
+    }
+    
+    // Full descriptions go in; the summary constructor cuts them like the projection queries do
+    private static List<TodoSummary> toSummaries(List<TodoSnapshot> snapshots) {
+        return snapshots.stream()
+            .map(todo -> new TodoSummary(todo.getId(), todo.getDescription(), todo.getStartDate(), todo.getEndDate(),
+                                         todo.getPriority(), todo.getCollaborators(), todo.isCompleted(),
+                                         todo.getCreatedAt(), todo.getUpdatedAt()))
+            .collect(Collectors.toList());
+    }
+    
+    // In-memory twin of buildFilterSpecification, for rows served by the read model
+    private java.util.function.Predicate<TodoSnapshot> filterCondition(String filter) {
+        if (filter == null) {
+            return null;
+        }
+        LocalDate today = LocalDate.now(clock);
+        switch (filter.toLowerCase()) {
+            case "completed":
+                return TodoSnapshot::isCompleted;
+            case "pending":
+                return todo -> !todo.isCompleted();
+            case "overdue":
+                return todo -> !todo.isCompleted() && todo.getEndDate() != null && todo.getEndDate().isBefore(today);
+            case "due-today":
+                return todo -> today.equals(todo.getEndDate());
+            case "high-priority":
+                return todo -> todo.getPriority() == Todo.Priority.HIGH;
+            case "urgent":
+                return todo -> todo.getPriority() == Todo.Priority.URGENT;
+            default:
+                return null;
+        }
+    }
+    
+    private Specification<Todo> buildFilterSpecification(String filter) {
+        Specification<Todo> spec = null;
+        
         if (filter != null) {
             String filterLower = filter.toLowerCase();
             if ("completed".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> cb.isTrue(root.get("completed")));
+                spec = Specification.where((root, query, cb) -> cb.isTrue(root.get("completed")));
             } else if ("pending".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> cb.isFalse(root.get("completed")));
+                spec = Specification.where((root, query, cb) -> cb.isFalse(root.get("completed")));
             } else if ("overdue".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> cb.and(
-                    cb.lessThan(root.get("endDate"), LocalDate.now()),
+                spec = Specification.where((root, query, cb) -> cb.and(
+                    cb.lessThan(root.get("endDate"), LocalDate.now(clock)),
                     cb.isFalse(root.get("completed"))
                 ));
             } else if ("due-today".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> 
-                    cb.equal(root.get("endDate"), LocalDate.now()));
+                spec = Specification.where((root, query, cb) -> 
+                    cb.equal(root.get("endDate"), LocalDate.now(clock)));
             } else if ("high-priority".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> 
+                spec = Specification.where((root, query, cb) -> 
                     cb.equal(root.get("priority"), Todo.Priority.HIGH));
             } else if ("urgent".equals(filterLower)) {
-                spec = spec.and((root, query, cb) -> 
+                spec = Specification.where((root, query, cb) -> 
                     cb.equal(root.get("priority"), Todo.Priority.URGENT));
             }
         }
         
         return spec;
     }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.todoapp.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Translates the v1 `sort` parameter into stored columns. `priority` sorts by priority_rank
+// (ascending is most urgent first), so completed,priority,endDate follows idx_todos_completed_priority_rank.
+final class TodoSort {
+    
+    private static final Map<String, String> PROPERTIES = new LinkedHashMap<>();
+    
+    static {
+        PROPERTIES.put("completed", "completed");
+        PROPERTIES.put("priority", "priorityRank");
+        PROPERTIES.put("endDate", "endDate");
+        PROPERTIES.put("startDate", "startDate");
+        PROPERTIES.put("createdAt", "createdAt");
+        PROPERTIES.put("updatedAt", "updatedAt");
+        PROPERTIES.put("id", "id");
+    }
+    
+    private TodoSort() {
+    }
+    
+    static Pageable toStoredOrder(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toStoredOrder(pageable.getSort()));
+    }
+    
+    static Sort toStoredOrder(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String property = PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new IllegalArgumentException(
+                    "Cannot sort by '" + order.getProperty() + "'; use one of " + PROPERTIES.keySet());
+            }
+            orders.add(new Sort.Order(order.getDirection(), property));
+        }
+        return Sort.by(orders);
+    }
+}
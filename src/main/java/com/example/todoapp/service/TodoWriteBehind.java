@@ -0,0 +1,211 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in write-behind for the legacy update and toggle endpoints.
+ *
+ * <p>The first edit of a todo opens a window of {@code app.write-behind.window};
+ * every edit of the same todo inside it is queued behind the first, and when
+ * the window closes they are applied in order to one loaded entity and saved
+ * as a single UPDATE with a single change event. A burst of field edits or
+ * clicks therefore costs one read and one write.
+ *
+ * <p>With {@code ack=enqueue} the caller gets the todo as it will look once
+ * flushed, straight away; with {@code ack=flush} it waits until the write has
+ * committed. Pending windows are flushed when the application shuts down,
+ * and edits that arrive once shutdown has started are written through.
+ */
+@Component
+public class TodoWriteBehind {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoWriteBehind.class);
+    
+    private final TodoService todoService;
+    private final boolean enabled;
+    private final boolean ackAfterFlush;
+    private final long windowMillis;
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Counter enqueued;
+    private final Counter flushed;
+    private final Counter failed;
+    
+    private volatile boolean shuttingDown;
+    
+    public TodoWriteBehind(TodoService todoService, MeterRegistry meterRegistry,
+                           @Value("${app.write-behind.enabled:false}") boolean enabled,
+                           @Value("${app.write-behind.window:PT2S}") Duration window,
+                           @Value("${app.write-behind.ack:enqueue}") String ack) {
+        switch (ack.toLowerCase(Locale.ROOT)) {
+            case "enqueue":
+                this.ackAfterFlush = false;
+                break;
+            case "flush":
+                this.ackAfterFlush = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown app.write-behind.ack: " + ack);
+        }
+        
+        this.todoService = todoService;
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("todo-write-behind-");
+        threadFactory.setDaemon(true);
+        this.scheduler = enabled ? new ScheduledThreadPoolExecutor(1, threadFactory) : null;
+        if (scheduler != null) {
+            // On shutdown, windows still waiting are flushed by shutdown() rather than by their timers
+            scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        
+        this.enqueued = Counter.builder("todo.write_behind.edits")
+            .description("Edits accepted by the write-behind queue")
+            .register(meterRegistry);
+        this.flushed = Counter.builder("todo.write_behind.flushes")
+            .description("Coalesced writes sent to the database")
+            .register(meterRegistry);
+        this.failed = Counter.builder("todo.write_behind.failures")
+            .description("Coalesced writes that failed to commit")
+            .register(meterRegistry);
+        meterRegistry.gaugeMapSize("todo.write_behind.pending", Tags.empty(), pending);
+        
+        if (enabled) {
+            logger.info("Write-behind enabled: {} window, ack after {}", window, ackAfterFlush ? "flush" : "enqueue");
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    // Completes with null when the todo does not exist
+    public CompletableFuture<Todo> update(Long id, Todo todoDetails) {
+        return enqueue(id, todo -> TodoService.copyDetails(todoDetails, todo));
+    }
+    
+    public CompletableFuture<Todo> toggle(Long id) {
+        return enqueue(id, todo -> todo.setCompleted(!Boolean.TRUE.equals(todo.getCompleted())));
+    }
+    
+    private CompletableFuture<Todo> enqueue(Long id, Consumer<Todo> change) {
+        while (true) {
+            if (shuttingDown) {
+                // The scheduler is gone; write through instead of opening a window nobody will flush
+                return CompletableFuture.completedFuture(todoService.applyChanges(id, change));
+            }
+            
+            PendingWrite entry = pending.get(id);
+            if (entry == null) {
+                // The primary row, not the cache: a cached or replica copy may predate the last commit
+                TodoSnapshot current = todoService.getCommittedTodo(id).orElse(null);
+                if (current == null) {
+                    // Missing or archived: write through, which restores an archived todo the change reopens
+                    return CompletableFuture.completedFuture(todoService.applyChanges(id, change));
+                }
+                PendingWrite opened = new PendingWrite(id, current.toTodo());
+                entry = pending.putIfAbsent(id, opened);
+                if (entry == null) {
+                    try {
+                        scheduler.schedule(() -> flush(opened), windowMillis, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException ex) {
+                        // Shutdown began after the check above: write what joined the window so far, then
+                        // retry, which writes this edit through
+                        flush(opened);
+                        continue;
+                    }
+                    entry = opened;
+                }
+            }
+            
+            synchronized (entry) {
+                if (entry.closed) {
+                    // Flushed between lookup and lock; open a new window
+                    continue;
+                }
+                entry.changes.add(change);
+                change.accept(entry.projection);
+                enqueued.increment();
+                
+                if (ackAfterFlush) {
+                    CompletableFuture<Todo> committed = new CompletableFuture<>();
+                    entry.waiters.add(committed);
+                    return committed;
+                }
+                return CompletableFuture.completedFuture(TodoSnapshot.of(entry.projection).toTodo());
+            }
+        }
+    }
+    
+    private void flush(PendingWrite entry) {
+        synchronized (entry) {
+            entry.closed = true;
+            pending.remove(entry.id, entry);
+        }
+        
+        try {
+            Todo saved = todoService.applyChanges(entry.id, todo -> entry.changes.forEach(change -> change.accept(todo)));
+            flushed.increment();
+            if (saved == null) {
+                logger.warn("Dropped {} queued edits to todo {}: it was deleted", entry.changes.size(), entry.id);
+            }
+            entry.waiters.forEach(waiter -> waiter.complete(saved));
+        } catch (RuntimeException ex) {
+            failed.increment();
+            logger.error("Failed to write {} queued edits to todo {}", entry.changes.size(), entry.id, ex);
+            entry.waiters.forEach(waiter -> waiter.completeExceptionally(ex));
+        }
+    }
+    
+    // Runs after the web server has stopped taking requests, while the repositories are still up
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        shuttingDown = true;
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        
+        List<PendingWrite> remaining = new ArrayList<>(pending.values());
+        logger.info("Flushing {} pending write-behind windows", remaining.size());
+        remaining.forEach(this::flush);
+    }
+    
+    // Guarded by its own monitor
+    private static final class PendingWrite {
+        
+        final Long id;
+        final Todo projection;
+        final List<Consumer<Todo>> changes = new ArrayList<>();
+        final List<CompletableFuture<Todo>> waiters = new ArrayList<>();
+        boolean closed;
+        
+        PendingWrite(Long id, Todo projection) {
+            this.id = id;
+            this.projection = projection;
+        }
+    }
+}
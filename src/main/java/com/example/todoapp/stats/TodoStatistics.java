@@ -0,0 +1,194 @@
+package com.example.todoapp.stats;
+
+import com.example.todoapp.dto.TodoStatsResponse;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import com.example.todoapp.event.TodosBulkChangedEvent;
+import com.example.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard statistics kept as in-memory counters.
+ *
+ * <p>Counters are adjusted by the before/after delta of every committed
+ * {@link TodoChangedEvent}, and periodically replaced by one GROUP BY query so
+ * that any drift (writes that bypassed the services, missed events) is
+ * corrected. Counts per end date are kept instead of overdue/due-today
+ * totals, since those depend on the current date rather than on writes.
+ */
+@Component
+public class TodoStatistics {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TodoStatistics.class);
+    
+    private static final Todo.Priority[] PRIORITIES = Todo.Priority.values();
+    private static final int ALL = 0;
+    private static final int PENDING = 1;
+    
+    private final TodoRepository todoRepository;
+    private final Clock clock;
+    private final Object reconcileLock = new Object();
+    
+    // Guarded by this
+    private Counts counts = new Counts();
+    // Changes committed while a reconcile query runs, replayed onto its result; guarded by this
+    private Counts changesDuringReconcile;
+    private LocalDateTime reconciledAt;
+    
+    public TodoStatistics(TodoRepository todoRepository, Clock clock) {
+        this.todoRepository = todoRepository;
+        this.clock = clock;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onTodoChanged(TodoChangedEvent event) {
+        apply(counts, event);
+        if (changesDuringReconcile != null) {
+            apply(changesDuringReconcile, event);
+        }
+    }
+    
+    // A bulk toggle carries no before and after states, so the counts are recomputed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTodosBulkChanged(TodosBulkChangedEvent event) {
+        reconcile();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT5M}",
+               initialDelayString = "${app.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // One reconcile at a time, so concurrent runs cannot share the change buffer
+        synchronized (reconcileLock) {
+            doReconcile();
+        }
+    }
+    
+    private void doReconcile() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            changesDuringReconcile = new Counts();
+        }
+        
+        Counts fresh = new Counts();
+        try {
+            for (Object[] row : todoRepository.countByCompletedPriorityAndEndDate()) {
+                fresh.add(Boolean.TRUE.equals(row[0]), (Todo.Priority) row[1], (LocalDate) row[2],
+                          ((Number) row[3]).longValue());
+            }
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                changesDuringReconcile = null;
+            }
+            throw ex;
+        }
+        
+        synchronized (this) {
+            fresh.merge(changesDuringReconcile);
+            changesDuringReconcile = null;
+            if (counts.total != fresh.total || counts.completed != fresh.completed) {
+                logger.info("Reconciled todo statistics: total {} -> {}, completed {} -> {}",
+                            counts.total, fresh.total, counts.completed, fresh.completed);
+            }
+            counts = fresh;
+            reconciledAt = LocalDateTime.now(clock);
+        }
+        logger.debug("Reconciled todo statistics in {} ms", System.currentTimeMillis() - started);
+    }
+    
+    public TodoStatsResponse getStats() {
+        // Counters start empty; serve the first request from a fresh reconcile
+        synchronized (this) {
+            if (reconciledAt != null) {
+                return snapshot(LocalDate.now(clock));
+            }
+        }
+        reconcile();
+        synchronized (this) {
+            return snapshot(LocalDate.now(clock));
+        }
+    }
+    
+    private TodoStatsResponse snapshot(LocalDate today) {
+        long overdue = 0;
+        for (long[] byDate : counts.byEndDate.headMap(today, false).values()) {
+            overdue += byDate[PENDING];
+        }
+        long[] todays = counts.byEndDate.get(today);
+        long dueToday = todays != null ? todays[ALL] : 0;
+        
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (Todo.Priority priority : PRIORITIES) {
+            byPriority.put(priority.name(), counts.byPriority[priority.ordinal()]);
+        }
+        byPriority.put("NONE", counts.byPriority[PRIORITIES.length]);
+        
+        return new TodoStatsResponse(counts.total, counts.completed, counts.total - counts.completed,
+                                     overdue, dueToday, byPriority, reconciledAt);
+    }
+    
+    private static void apply(Counts target, TodoChangedEvent event) {
+        TodoSnapshot before = event.getBefore();
+        TodoSnapshot after = event.getTodo();
+        if (before != null) {
+            target.add(before.isCompleted(), before.getPriority(), before.getEndDate(), -1);
+        }
+        if (after != null) {
+            target.add(after.isCompleted(), after.getPriority(), after.getEndDate(), 1);
+        }
+    }
+    
+    private static final class Counts {
+        
+        long total;
+        long completed;
+        // Indexed by priority ordinal; the last slot counts todos without a priority
+        final long[] byPriority = new long[PRIORITIES.length + 1];
+        // end date -> [all, pending]
+        final TreeMap<LocalDate, long[]> byEndDate = new TreeMap<>();
+        
+        void add(boolean isCompleted, Todo.Priority priority, LocalDate endDate, long n) {
+            total += n;
+            if (isCompleted) {
+                completed += n;
+            }
+            byPriority[priority != null ? priority.ordinal() : PRIORITIES.length] += n;
+            if (endDate != null) {
+                addByEndDate(endDate, n, isCompleted ? 0 : n);
+            }
+        }
+        
+        void merge(Counts other) {
+            total += other.total;
+            completed += other.completed;
+            for (int i = 0; i < byPriority.length; i++) {
+                byPriority[i] += other.byPriority[i];
+            }
+            other.byEndDate.forEach((date, n) -> addByEndDate(date, n[ALL], n[PENDING]));
+        }
+        
+        private void addByEndDate(LocalDate endDate, long all, long pending) {
+            long[] n = byEndDate.computeIfAbsent(endDate, d -> new long[2]);
+            n[ALL] += all;
+            n[PENDING] += pending;
+            if (n[ALL] == 0 && n[PENDING] == 0) {
+                byEndDate.remove(endDate);
+            }
+        }
+    }
+}
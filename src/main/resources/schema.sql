@@ -1,7 +1,12 @@
 -- H2 Database Schema for ToDo App
 -- This script creates the database schema and will be executed at startup
 
--- Drop table if exists (for clean restart)
+-- Drop tables if they exist (for clean restart)
+DROP TABLE IF EXISTS job_locks;
+DROP TABLE IF EXISTS todo_collection_version;
+DROP TABLE IF EXISTS todos_archive;
+DROP TABLE IF EXISTS todo_tombstones;
+DROP TABLE IF EXISTS todo_collaborators;
 DROP TABLE IF EXISTS todos;
 
 -- Create the todos table
@@ -11,6 +16,7 @@ CREATE TABLE todos (
     start_date DATE,
     end_date DATE,
     priority VARCHAR(20) CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    priority_rank INTEGER DEFAULT 5,
     comments TEXT,
     collaborators VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -23,5 +29,58 @@ CREATE INDEX idx_todos_priority ON todos(priority);
 CREATE INDEX idx_todos_completed ON todos(completed);
 CREATE INDEX idx_todos_end_date ON todos(end_date);
 CREATE INDEX idx_todos_created_at ON todos(created_at);
+CREATE INDEX idx_todos_updated_at ON todos(updated_at, id);
+CREATE INDEX idx_todos_completed_priority_rank ON todos(completed, priority_rank, end_date);
+CREATE INDEX idx_todos_priority_rank_end_date ON todos(priority_rank, end_date);
+
+-- Normalized collaborator names, one row per todo and person
+CREATE TABLE todo_collaborators (
+    todo_id BIGINT NOT NULL REFERENCES todos(id) ON DELETE CASCADE,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (todo_id, name)
+);
+
+CREATE INDEX idx_todo_collaborators_name ON todo_collaborators(name, todo_id);
+
+-- Deleted todo ids, kept for incremental sync clients until the retention purge
+CREATE TABLE todo_tombstones (
+    todo_id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_todo_tombstones_deleted_at ON todo_tombstones(deleted_at, todo_id);
+
+-- Collection version behind the API ETags, bumped by every transaction that changes todos
+CREATE TABLE todo_collection_version (
+    id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO todo_collection_version (id, version) VALUES (1, 0);
+
+-- Completed todos moved out of the live table by the archive job; same ids and columns
+CREATE TABLE todos_archive (
+    id BIGINT PRIMARY KEY,
+    description TEXT,
+    start_date DATE,
+    end_date DATE,
+    priority VARCHAR(20),
+    priority_rank INTEGER,
+    comments TEXT,
+    collaborators VARCHAR(500),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    completed BOOLEAN,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_todos_archive_archived_at ON todos_archive(archived_at, id);
+
+-- Leases that keep scheduled jobs (the archive job) to one instance at a time
+CREATE TABLE job_locks (
+    name VARCHAR(100) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_by VARCHAR(100)
+);
 
 -- Note: H2 doesn't support PostgreSQL-style triggers, so we'll handle updated_at in the application code
@@ -4,13 +4,16 @@ class TodoApp {
     constructor() {
         this.todos = [];
         this.currentEditId = null;
+        this.refreshTimer = null;
+        // The search, filter or sort the list currently shows, re-applied when the data changes
+        this.activeView = null;
         this.init();
     }
 
     init() {
         this.setupEventListeners();
         this.updateCurrentDate();
-        this.loadTodos();
+        this.loadTodos().then(() => this.subscribeToChanges());
         
         // Update date every minute
         setInterval(() => this.updateCurrentDate(), 60000);
@@ -66,7 +69,7 @@ class TodoApp {
             const response = await fetch('/api/todos');
             if (response.ok) {
                 this.todos = await response.json();
-                this.renderTodos();
+                this.refreshView();
                 this.updateStatistics();
             } else {
                 this.showError('Failed to load todos');
@@ -79,6 +82,73 @@ class TodoApp {
         }
     }
 
+    subscribeToChanges() {
+        if (!window.EventSource) {
+            return;
+        }
+
+        // Changes made in other tabs and by other users arrive here and are applied in place
+        const source = new EventSource('/api/v1/todos/events');
+        let connectedBefore = false;
+        source.addEventListener('open', () => {
+            // Changes committed while disconnected were missed; reload once after a reconnect
+            if (connectedBefore) {
+                this.loadTodos();
+            }
+            connectedBefore = true;
+        });
+        source.addEventListener('todo', (event) => this.applyChange(JSON.parse(event.data)));
+        // The server dropped our backlog because we fell behind
+        source.addEventListener('resync', () => this.loadTodos());
+    }
+
+    applyChange(change) {
+        const index = this.todos.findIndex(todo => todo.id === change.id);
+        // Archived todos leave the list just like deleted ones
+        if (change.operation === 'DELETED' || change.operation === 'ARCHIVED') {
+            if (index === -1) return;
+            this.todos.splice(index, 1);
+        } else if (index !== -1) {
+            this.todos[index] = { ...this.todos[index], ...change.changes };
+        } else if (change.operation === 'CREATED' || change.operation === 'RESTORED') {
+            this.todos.unshift({ id: change.id, ...change.changes });
+        } else {
+            return;
+        }
+        this.scheduleRefresh();
+    }
+
+    scheduleRefresh() {
+        // Coalesce bursts of changes into one render and one statistics request
+        clearTimeout(this.refreshTimer);
+        this.refreshTimer = setTimeout(() => {
+            this.refreshView();
+            this.updateStatistics();
+        }, 100);
+    }
+
+    refreshView() {
+        const view = this.activeView;
+        if (!view) {
+            this.renderTodos();
+        } else if (view.type === 'search') {
+            this.searchTodos(view.value);
+        } else if (view.type === 'filter') {
+            this.filterTodos(view.value);
+        } else {
+            this.sortTodos(view.value);
+        }
+    }
+
+    async renderView(view, url) {
+        this.activeView = view;
+        const response = await fetch(url);
+        // A newer search, filter or sort replaced this one while it was loading
+        if (response.ok && this.activeView === view) {
+            this.renderTodos(await response.json());
+        }
+    }
+
     async createTodo() {
         const formData = this.getFormData();
         
@@ -98,8 +168,14 @@ class TodoApp {
 
             if (response.ok) {
                 const newTodo = await response.json();
-                this.todos.unshift(newTodo);
-                this.renderTodos();
+                // The change feed may have delivered this todo before the response did
+                const index = this.todos.findIndex(todo => todo.id === newTodo.id);
+                if (index !== -1) {
+                    this.todos[index] = newTodo;
+                } else {
+                    this.todos.unshift(newTodo);
+                }
+                this.refreshView();
                 this.updateStatistics();
                 this.clearForm();
                 this.showSuccess('Todo created successfully!');
@@ -127,7 +203,7 @@ class TodoApp {
                 const index = this.todos.findIndex(todo => todo.id === id);
                 if (index !== -1) {
                     this.todos[index] = updatedTodo;
-                    this.renderTodos();
+                    this.refreshView();
                     this.updateStatistics();
                 }
                 return updatedTodo;
@@ -154,7 +230,7 @@ class TodoApp {
 
             if (response.ok) {
                 this.todos = this.todos.filter(todo => todo.id !== id);
-                this.renderTodos();
+                this.refreshView();
                 this.updateStatistics();
                 this.showSuccess('Todo deleted successfully!');
             } else {
@@ -177,7 +253,7 @@ class TodoApp {
                 const index = this.todos.findIndex(todo => todo.id === id);
                 if (index !== -1) {
                     this.todos[index] = updatedTodo;
-                    this.renderTodos();
+                    this.refreshView();
                     this.updateStatistics();
                     this.showSuccess(updatedTodo.completed ? 'Todo completed!' : 'Todo marked as pending');
                 }
@@ -192,16 +268,13 @@ class TodoApp {
 
     async searchTodos(query) {
         if (!query.trim()) {
+            this.activeView = null;
             this.renderTodos();
             return;
         }
 
         try {
-            const response = await fetch(`/api/todos?search=${encodeURIComponent(query)}`);
-            if (response.ok) {
-                const filteredTodos = await response.json();
-                this.renderTodos(filteredTodos);
-            }
+            await this.renderView({ type: 'search', value: query }, `/api/todos?search=${encodeURIComponent(query)}`);
         } catch (error) {
             console.error('Error searching todos:', error);
         }
@@ -209,16 +282,13 @@ class TodoApp {
 
     async filterTodos(filter) {
         if (!filter) {
+            this.activeView = null;
             this.renderTodos();
             return;
         }
 
         try {
-            const response = await fetch(`/api/todos?filter=${filter}`);
-            if (response.ok) {
-                const filteredTodos = await response.json();
-                this.renderTodos(filteredTodos);
-            }
+            await this.renderView({ type: 'filter', value: filter }, `/api/todos?filter=${filter}`);
         } catch (error) {
             console.error('Error filtering todos:', error);
         }
@@ -226,16 +296,13 @@ class TodoApp {
 
     async sortTodos(sort) {
         if (!sort) {
+            this.activeView = null;
             this.renderTodos();
             return;
         }
 
         try {
-            const response = await fetch(`/api/todos?sort=${sort}`);
-            if (response.ok) {
-                const sortedTodos = await response.json();
-                this.renderTodos(sortedTodos);
-            }
+            await this.renderView({ type: 'sort', value: sort }, `/api/todos?sort=${sort}`);
         } catch (error) {
             console.error('Error sorting todos:', error);
         }
@@ -367,18 +434,22 @@ class TodoApp {
         }
     }
 
-    updateStatistics() {
-        const total = this.todos.length;
-        const completed = this.todos.filter(todo => todo.completed).length;
-        const pending = total - completed;
-        const overdue = this.todos.filter(todo => 
-            todo.endDate && new Date(todo.endDate) < new Date() && !todo.completed
-        ).length;
-
-        document.getElementById('totalTodos').textContent = total;
-        document.getElementById('completedTodos').textContent = completed;
-        document.getElementById('pendingTodos').textContent = pending;
-        document.getElementById('overdueTodos').textContent = overdue;
+    async updateStatistics() {
+        // Counts come from the server so the panel costs the same however many todos exist
+        try {
+            const response = await fetch('/api/v1/todos/stats');
+            if (!response.ok) {
+                throw new Error('Failed to load statistics');
+            }
+            const stats = await response.json();
+
+            document.getElementById('totalTodos').textContent = stats.total;
+            document.getElementById('completedTodos').textContent = stats.completed;
+            document.getElementById('pendingTodos').textContent = stats.pending;
+            document.getElementById('overdueTodos').textContent = stats.overdue;
+        } catch (error) {
+            console.error('Error loading statistics:', error);
+        }
     }
 
     getFormData() {
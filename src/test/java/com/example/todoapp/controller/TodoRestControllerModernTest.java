@@ -0,0 +1,42 @@
+package com.example.todoapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:moderncontrollerdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TodoRestControllerModernTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void idsWithLimitIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").param("ids", "1,2").param("limit", "10"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void idsWithLimitAndSummaryViewIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").param("ids", "1,2").param("limit", "10").param("view", "summary"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void idsWithSummaryViewIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/todos").param("ids", "1,2").param("view", "summary"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.todoapp.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:legacycontrollerdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TodoRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void ndjsonStreamRejectsListFilters() throws Exception {
+        mockMvc.perform(get("/api/todos").accept("application/x-ndjson").param("filter", "pending"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/todos").accept("application/x-ndjson").param("search", "report"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void jsonArrayStreamRejectsListFilters() throws Exception {
+        mockMvc.perform(get("/api/todos").param("stream", "true").param("includeArchived", "true"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamsStillAcceptSort() throws Exception {
+        mockMvc.perform(get("/api/todos").param("stream", "true").param("sort", "priority"))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.todoapp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2024-07-01T12:00:00Z");
+
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = pool("primary");
+        replica1 = pool("replica-1");
+        replica2 = pool("replica-2");
+        setLag(replica1, 0);
+        setLag(replica2, 0);
+
+        ReadYourWrites readYourWrites = new ReadYourWrites(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(5));
+        routing = new ReplicaRoutingDataSource(primary, Arrays.asList(replica1, replica2), "round-robin",
+                                               Duration.ofSeconds(1), "SELECT seconds FROM replica_lag",
+                                               readYourWrites, new SimpleMeterRegistry());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        newRequest();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+        routing.destroy();
+    }
+
+    @Test
+    void spreadsReadOnlyRequestsAcrossReplicas() {
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        newRequest();
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+        newRequest();
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void keepsARequestOnItsReplicaAndNeverMovesToAnother() throws SQLException {
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        setLag(replica1, 5);
+        routing.checkLag();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        setLag(replica1, 0);
+        routing.checkLag();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void sendsWritesAndBackgroundReadsToThePrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        RequestContextHolder.resetRequestAttributes();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void skipsLaggingReplicasAndFallsBackToThePrimary() throws SQLException {
+        setLag(replica2, 5);
+        routing.checkLag();
+
+        assertEquals(Collections.singletonList("replica-1"), routing.healthyReplicas());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        setLag(replica1, 5);
+        routing.checkLag();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void keepsARecentWriterOnThePrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(NOW.minusSeconds(2).toEpochMilli())));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWrites.COOKIE, Long.toString(NOW.minusSeconds(10).toEpochMilli())));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    // Each stand-in replica reports its own lag from a one-row table
+    private static void setLag(HikariDataSource pool, int seconds) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds INT)");
+            statement.execute("DELETE FROM replica_lag");
+            statement.execute("INSERT INTO replica_lag VALUES (" + seconds + ")");
+        }
+    }
+}
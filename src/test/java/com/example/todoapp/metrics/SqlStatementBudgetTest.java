@@ -0,0 +1,63 @@
+package com.example.todoapp.metrics;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.example.todoapp.support.SqlStatementAssertions.noRepeatedStatements;
+import static com.example.todoapp.support.SqlStatementAssertions.statementsAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:sqlbudgetdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void getByIdIsOneSelect() throws Exception {
+        Todo todo = todoRepository.save(new Todo("Budgeted read"));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/todos/{id}", todo.getId())).andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("Server-Timing"))
+            .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    void legacyUpdateIsOneSelectAndOneUpdate() throws Exception {
+        Todo todo = todoRepository.save(new Todo("Budgeted write"));
+
+        MvcResult started = mockMvc.perform(put("/api/todos/{id}", todo.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Renamed\"}"))
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(statementsAtMost(2))
+            .andExpect(noRepeatedStatements());
+    }
+}
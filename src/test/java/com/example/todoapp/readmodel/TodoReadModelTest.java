@@ -0,0 +1,80 @@
+package com.example.todoapp.readmodel;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoReadModelTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 7, 1);
+
+    private TodoReadModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new TodoReadModel(null, true);
+        model.onTodoChanged(TodoChangedEvent.created(todo(1L, Todo.Priority.HIGH, "Alice, Bob", TODAY.minusDays(1), false)));
+        model.onTodoChanged(TodoChangedEvent.created(todo(2L, Todo.Priority.LOW, "Bobby", TODAY, true)));
+        model.onTodoChanged(TodoChangedEvent.created(todo(3L, Todo.Priority.HIGH, null, TODAY.plusDays(2), false)));
+    }
+
+    @Test
+    void answersFindersFromMemory() {
+        assertEquals(Arrays.asList(1L, 3L), ids(model.findByPriority(Todo.Priority.HIGH)));
+        assertEquals(Collections.singletonList(2L), ids(model.findByCompleted(true)));
+        assertEquals(Collections.singletonList(1L), ids(model.findByCollaboratorName("bob")));
+        assertEquals(Arrays.asList(1L, 2L), ids(model.findByCollaboratorPrefix("bob")));
+        assertEquals(Collections.singletonList(1L), ids(model.findOverdue(TODAY)));
+        assertEquals(Arrays.asList(1L, 2L), ids(model.findByDateRange(TODAY.minusDays(8), TODAY)));
+        assertEquals(Arrays.asList(3L, 1L), ids(model.findAllById(Arrays.asList(3L, 9L, 1L))));
+    }
+
+    @Test
+    void updatesAndDeletesMoveSecondaryIndexEntries() {
+        TodoSnapshot before = model.findById(1L);
+        model.onTodoChanged(TodoChangedEvent.updated(before, todo(1L, Todo.Priority.LOW, "Carol", TODAY, false)));
+        model.onTodoChanged(TodoChangedEvent.deleted(todo(2L, Todo.Priority.LOW, "Bobby", TODAY, true)));
+
+        assertEquals(Collections.singletonList(3L), ids(model.findByPriority(Todo.Priority.HIGH)));
+        assertEquals(Collections.singletonList(1L), ids(model.findByPriority(Todo.Priority.LOW)));
+        assertEquals(Collections.emptyList(), ids(model.findByCollaboratorPrefix("bob")));
+        assertNull(model.findById(2L));
+    }
+
+    @Test
+    void checkerComparesEveryStoredField() {
+        TodoSnapshot held = model.findById(3L);
+
+        assertTrue(TodoReadModelChecker.sameState(held, TodoSnapshot.of(held.toTodo())));
+        assertFalse(TodoReadModelChecker.sameState(held, held.withCompleted(true)));
+    }
+
+    private static Todo todo(Long id, Todo.Priority priority, String collaborators, LocalDate endDate, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setDescription("Todo " + id);
+        todo.setPriority(priority);
+        todo.setCollaborators(collaborators);
+        todo.setStartDate(endDate.minusDays(7));
+        todo.setEndDate(endDate);
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    private static List<Long> ids(List<TodoSnapshot> todos) {
+        return todos.stream().map(TodoSnapshot::getId).collect(Collectors.toList());
+    }
+}
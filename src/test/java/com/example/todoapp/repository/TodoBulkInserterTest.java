@@ -0,0 +1,50 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.entity.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TodoBulkInserterTest {
+
+    @Test
+    void nullIsAnUnquotedEmptyFieldSoCopyReadsItAsNull() {
+        assertEquals("", csv(null));
+    }
+
+    @Test
+    void emptyStringIsQuotedSoCopyKeepsItAnEmptyString() {
+        assertEquals("\"\"", csv(""));
+    }
+
+    @Test
+    void quotesAreDoubledAndSeparatorsStayInsideTheField() {
+        assertEquals("\"Say \"\"hi\"\", then, leave\nlater\"", csv("Say \"hi\", then, leave\nlater"));
+    }
+
+    @Test
+    void enumsByNameAndOtherValuesByTheirTextForm() {
+        assertEquals("\"HIGH\"", csv(Todo.Priority.HIGH));
+        assertEquals("\"3\"", csv(3));
+        assertEquals("\"false\"", csv(false));
+        assertEquals("\"2024-01-31\"", csv(LocalDate.of(2024, 1, 31)));
+        assertEquals("\"2024-01-31T09:30\"", csv(LocalDateTime.of(2024, 1, 31, 9, 30)));
+    }
+
+    @Test
+    void fieldsAppendToOneRow() {
+        StringBuilder row = new StringBuilder();
+        TodoBulkInserter.appendCsv(row, "a,b").append(',');
+        TodoBulkInserter.appendCsv(row, null).append(',');
+        TodoBulkInserter.appendCsv(row, Todo.Priority.LOW).append('\n');
+
+        assertEquals("\"a,b\",,\"LOW\"\n", row.toString());
+    }
+
+    private static String csv(Object value) {
+        return TodoBulkInserter.appendCsv(new StringBuilder(), value).toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.todoapp.search;
+
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.event.TodoChangedEvent;
+import com.example.todoapp.event.TodoSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TodoDueDateIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 7, 1);
+
+    private TodoDueDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoDueDateIndex(null, null, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        index.onTodoChanged(TodoChangedEvent.created(todo(1L, TODAY.minusDays(2), false)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(2L, TODAY.minusDays(5), false)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(3L, TODAY, false)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(4L, TODAY, true)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(5L, TODAY.plusDays(3), false)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(6L, TODAY.plusDays(4), false)));
+        index.onTodoChanged(TodoChangedEvent.created(todo(7L, null, false)));
+    }
+
+    @Test
+    void answersEachViewInEndDateOrder() {
+        assertEquals(Arrays.asList(2L, 1L), ids(index.overdue(TODAY)));
+        assertEquals(Arrays.asList(3L, 4L), ids(index.dueOn(TODAY)));
+        assertEquals(Arrays.asList(2L, 1L, 3L, 5L), ids(index.dueWithin(TODAY, 3)));
+    }
+
+    @Test
+    void movesTodosBetweenBucketsOnChange() {
+        index.onTodoChanged(TodoChangedEvent.toggled(todo(1L, TODAY.minusDays(2), true)));
+        index.onTodoChanged(TodoChangedEvent.updated(null, todo(5L, TODAY, false)));
+        index.onTodoChanged(TodoChangedEvent.deleted(todo(3L, TODAY, false)));
+
+        assertEquals(Collections.singletonList(2L), ids(index.overdue(TODAY)));
+        assertEquals(Arrays.asList(5L, 4L), ids(index.dueOn(TODAY)));
+    }
+
+    @Test
+    void keepsCompletedTodosOnlyUntilTheirEndDatePasses() {
+        index.onTodoChanged(TodoChangedEvent.toggled(todo(2L, TODAY.minusDays(5), true)));
+
+        assertEquals(5, index.size());
+    }
+
+    private static Todo todo(Long id, LocalDate endDate, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setDescription("Todo " + id);
+        todo.setEndDate(endDate);
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    private static List<Long> ids(List<TodoSnapshot> todos) {
+        return todos.stream().map(TodoSnapshot::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todoapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TodoSearchIndexTest {
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchIndex(null, null);
+        index.index(1L, "Review code changes", "Focus on security and performance");
+        index.index(2L, "Security audit", "Comprehensive security review");
+        index.index(3L, "Write unit tests", null);
+    }
+
+    @Test
+    void requiresEveryTokenAndRanksByRelevance() {
+        assertEquals(Arrays.asList(2L, 1L), index.search("security review"));
+        assertEquals(Collections.singletonList(1L), index.search("code security"));
+    }
+
+    @Test
+    void treatsLastTokenAsPrefix() {
+        assertEquals(Collections.singletonList(3L), index.search("unit te"));
+        assertEquals(Collections.emptyList(), index.search("unit te "));
+    }
+
+    @Test
+    void updatesAndDeletesRetractOldPostings() {
+        index.index(3L, "Write integration tests", null);
+        index.remove(2L);
+
+        assertEquals(Collections.emptyList(), index.search("unit"));
+        assertEquals(Collections.singletonList(1L), index.search("security"));
+    }
+
+    @Test
+    void returnsEveryMatchBestFirst() {
+        index.index(4L, "Other", "security");
+
+        assertEquals(Arrays.asList(2L, 4L, 1L), index.search("security"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoBatchRequest;
+import com.example.todoapp.dto.TodoBatchRequest.Operation;
+import com.example.todoapp.dto.TodoBatchRequest.OperationType;
+import com.example.todoapp.dto.TodoBatchResponse;
+import com.example.todoapp.dto.TodoBulkToggleRequest;
+import com.example.todoapp.dto.TodoBulkToggleResponse;
+import com.example.todoapp.dto.TodoUpdateRequest;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoArchiveRepository;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.repository.TodoTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:archivedb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TodoArchiveServiceTest {
+
+    @Autowired
+    private TodoArchiveService archiveService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoServiceModern todoServiceModern;
+
+    @Autowired
+    private TodoBatchService batchService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoArchiveRepository archiveRepository;
+
+    @Autowired
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Test
+    void movesCompletedTodosAndRestoresThemWhenReopened() {
+        Todo pending = todoService.createTodo(new Todo("Still open"));
+        Todo done = todo("Finished", "Alice, Bob");
+        todoService.toggleTodoCompletion(done.getId());
+
+        archiveService.archiveCompletedBefore(LocalDateTime.now().plusMinutes(1));
+
+        assertFalse(todoRepository.findById(done.getId()).isPresent());
+        assertTrue(todoRepository.findById(pending.getId()).isPresent());
+        assertTrue(archiveService.findById(done.getId()).isPresent());
+
+        Todo reopened = todoService.toggleTodoCompletion(done.getId());
+
+        assertNotNull(reopened);
+        assertEquals(done.getId(), reopened.getId());
+        assertFalse(reopened.getCompleted());
+        assertFalse(archiveRepository.existsById(done.getId()));
+        assertEquals(Collections.singletonList(done.getId()), ids(todoRepository.findByCollaboratorName("bob")));
+    }
+
+    @Test
+    void editsThatKeepATodoCompletedLeaveItArchived() {
+        Todo done = todo("Archived for good", null);
+        todoService.toggleTodoCompletion(done.getId());
+        archiveService.archiveCompletedBefore(LocalDateTime.now().plusMinutes(1));
+
+        Todo details = new Todo();
+        details.setDescription("Renamed");
+        details.setCompleted(true);
+
+        assertNull(todoService.updateTodo(done.getId(), details));
+        assertTrue(archiveRepository.existsById(done.getId()));
+
+        details.setCompleted(false);
+        Todo restored = todoService.updateTodo(done.getId(), details);
+
+        assertEquals("Renamed", restored.getDescription());
+        assertFalse(restored.getCompleted());
+        assertFalse(archiveRepository.existsById(done.getId()));
+    }
+
+    @Test
+    void archivingLeavesATombstoneAndArchivedTodosCanBeDeleted() {
+        Todo done = todo("Tombstoned", null);
+        todoService.toggleTodoCompletion(done.getId());
+        archiveService.archiveCompletedBefore(LocalDateTime.now().plusMinutes(1));
+
+        assertTrue(tombstoneRepository.existsById(done.getId()));
+
+        assertTrue(todoService.deleteTodo(done.getId()));
+        assertFalse(archiveRepository.existsById(done.getId()));
+        assertTrue(tombstoneRepository.existsById(done.getId()));
+        assertFalse(todoService.deleteTodo(done.getId()));
+    }
+
+    @Test
+    void batchUpdatesThatReopenAnArchivedTodoRestoreIt() {
+        Todo done = archived("Reopened by batch");
+        Todo stays = archived("Renamed but still done");
+
+        TodoUpdateRequest reopen = new TodoUpdateRequest();
+        reopen.setCompleted(false);
+        reopen.setVersion(0L);
+        TodoUpdateRequest rename = new TodoUpdateRequest();
+        rename.setDescription("Renamed");
+        rename.setVersion(0L);
+        TodoBatchResponse response = batchService.execute(new TodoBatchRequest(Arrays.asList(
+            new Operation(OperationType.UPDATE, done.getId(), null, reopen),
+            new Operation(OperationType.UPDATE, stays.getId(), null, rename))));
+
+        assertEquals(200, response.getResults().get(0).getStatus());
+        assertFalse(todoRepository.findById(done.getId()).get().getCompleted());
+        assertFalse(archiveRepository.existsById(done.getId()));
+        assertEquals(404, response.getResults().get(1).getStatus());
+        assertTrue(archiveRepository.existsById(stays.getId()));
+    }
+
+    @Test
+    void bulkTogglesByIdReopenArchivedTodos() {
+        Todo flipped = archived("Flipped open");
+        Todo setPending = archived("Set pending");
+        Todo setDone = archived("Set done");
+
+        TodoBulkToggleResponse toggled = todoServiceModern.toggleTodos(
+            new TodoBulkToggleRequest(Collections.singletonList(flipped.getId()), null, null));
+        TodoBulkToggleResponse pending = todoServiceModern.toggleTodos(
+            new TodoBulkToggleRequest(Collections.singletonList(setPending.getId()), null, false));
+        TodoBulkToggleResponse done = todoServiceModern.toggleTodos(
+            new TodoBulkToggleRequest(Collections.singletonList(setDone.getId()), null, true));
+
+        assertEquals(1, toggled.getUpdated());
+        assertFalse(todoRepository.findById(flipped.getId()).get().getCompleted());
+        assertEquals(1, pending.getUpdated());
+        assertFalse(todoRepository.findById(setPending.getId()).get().getCompleted());
+        assertFalse(archiveRepository.existsById(setPending.getId()));
+        assertEquals(0, done.getUpdated());
+        assertTrue(archiveRepository.existsById(setDone.getId()));
+    }
+
+    private Todo archived(String description) {
+        Todo done = todo(description, null);
+        todoService.toggleTodoCompletion(done.getId());
+        archiveService.archiveCompletedBefore(LocalDateTime.now().plusMinutes(1));
+        assertTrue(archiveRepository.existsById(done.getId()));
+        return done;
+    }
+
+    private Todo todo(String description, String collaborators) {
+        Todo todo = new Todo(description);
+        todo.setCollaborators(collaborators);
+        return todoService.createTodo(todo);
+    }
+
+    private static List<Long> ids(List<Todo> todos) {
+        return todos.stream().map(Todo::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoBatchRequest;
+import com.example.todoapp.dto.TodoBatchRequest.Operation;
+import com.example.todoapp.dto.TodoBatchRequest.OperationType;
+import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.entity.CollectionVersion;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.CollectionVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:versiondb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.etag.sync-interval=PT1H"
+})
+class TodoCollectionVersionTest {
+
+    @Autowired
+    private TodoCollectionVersion collectionVersion;
+
+    @Autowired
+    private CollectionVersionRepository versionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoBatchService batchService;
+
+    @Test
+    void writesMoveTheTagAtOnceAndReachTheRowAsOneIncrementPerSync() {
+        assertTrue(versionRepository.existsById(CollectionVersion.ID), "row is seeded for generated schemas");
+        collectionVersion.sync();
+        long stored = version();
+        String before = collectionVersion.etag();
+
+        todoService.createTodo(new Todo("Versioned"));
+        String afterCreate = collectionVersion.etag();
+        assertNotEquals(before, afterCreate);
+
+        batchService.execute(new TodoBatchRequest(Arrays.asList(create("One"), create("Two"), create("Three"))));
+        assertNotEquals(afterCreate, collectionVersion.etag());
+        assertEquals(stored, version(), "writes do not touch the row");
+
+        collectionVersion.sync();
+        assertEquals(stored + 1, version());
+        String synced = collectionVersion.etag();
+        assertNotEquals(before, synced);
+
+        collectionVersion.sync();
+        assertEquals(synced, collectionVersion.etag(), "nothing new to publish");
+    }
+
+    @Test
+    void syncPicksUpIncrementsFromOtherInstances() {
+        collectionVersion.sync();
+        String before = collectionVersion.etag();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> versionRepository.increment(CollectionVersion.ID));
+        assertEquals(before, collectionVersion.etag());
+
+        collectionVersion.sync();
+        assertNotEquals(before, collectionVersion.etag());
+    }
+
+    private long version() {
+        return versionRepository.findVersion(CollectionVersion.ID).orElse(0L);
+    }
+
+    private static Operation create(String description) {
+        return new Operation(OperationType.CREATE, null,
+            new TodoCreateRequest(description, null, null, null, null, null), null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.todoapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TodoCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 7, 1, 10, 15, 30, 123456000);
+        
+        TodoCursor decoded = TodoCursor.decode(new TodoCursor(createdAt, 42L).encode());
+        
+        assertEquals(createdAt, decoded.getSortKey());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode("not-a-cursor"));
+    }
+}
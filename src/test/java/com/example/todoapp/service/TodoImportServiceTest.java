@@ -0,0 +1,152 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TodoImportStatus;
+import com.example.todoapp.dto.TodoImportStatus.RowError;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:importdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.import.batch-size=2"
+})
+class TodoImportServiceTest {
+
+    @Autowired
+    private TodoImportService importService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void importsValidCsvRowsInBatchesAndReportsTheRest() {
+        String csv = "Description,Start_Date,End Date,priority,collaborators\n" +
+                     "\"Plan, then ship\",2024-01-01,2024-01-31,high,\"Dana, Eve\"\n" +
+                     ",2024-01-01,,,\n" +
+                     "Bad date,2024-13-01,,,\n" +
+                     "Review\n" +
+                     "Celebrate,,,LOW,\n";
+
+        TodoImportStatus status = importService.importTodos(TodoImportService.Format.CSV, new StringReader(csv));
+
+        assertEquals(TodoImportStatus.State.COMPLETED, status.getState());
+        assertEquals(5, status.getRowsRead());
+        assertEquals(3, status.getImported());
+        assertEquals(2, status.getRejected());
+        assertEquals(Arrays.asList(2L, 3L), rows(status.getErrors()));
+        assertEquals("description: Description is required", status.getErrors().get(0).getMessage());
+
+        List<Todo> dana = todoRepository.findByCollaboratorName("dana");
+        assertEquals(1, dana.size());
+        Todo planned = dana.get(0);
+        assertEquals("Plan, then ship", planned.getDescription());
+        assertEquals(LocalDate.of(2024, 1, 31), planned.getEndDate());
+        assertEquals(Todo.Priority.HIGH, planned.getPriority());
+        assertEquals(Todo.Priority.HIGH.getRank(), planned.getPriorityRank());
+        assertFalse(planned.getCompleted());
+        assertTrue(importService.getImport(status.getId()).isPresent());
+    }
+
+    @Test
+    void reportsMalformedNdjsonLinesByRow() {
+        String ndjson = "{\"description\":\"From JSON\",\"priority\":\"URGENT\"}\n" +
+                        "\n" +
+                        "{\"description\":\n" +
+                        "{\"description\":\"Also from JSON\",\"collaborators\":\"Frank\"}\n";
+
+        TodoImportStatus status = importService.importTodos(TodoImportService.Format.NDJSON, new StringReader(ndjson));
+
+        assertEquals(2, status.getImported());
+        assertEquals(Collections.singletonList(2L), rows(status.getErrors()));
+        assertEquals(1, todoRepository.findByCollaboratorName("frank").size());
+    }
+
+    @Test
+    void startImportReturnsAtOnceAndTheStatusEndpointFollowsItToTheEnd() throws Exception {
+        String csv = "description,collaborators\n" +
+                     "Queued one,Grace\n" +
+                     "Queued two,Grace\n" +
+                     "Queued three,Grace\n";
+
+        TodoImportStatus queued = importService.startImport(TodoImportService.Format.CSV,
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        assertTrue(queued.getState() == TodoImportStatus.State.QUEUED ||
+                   queued.getState() == TodoImportStatus.State.RUNNING);
+
+        TodoImportStatus status = importService.getImport(queued.getId()).get();
+        for (int i = 0; i < 100 && !finished(status); i++) {
+            Thread.sleep(50);
+            status = importService.getImport(queued.getId()).get();
+        }
+
+        assertEquals(TodoImportStatus.State.COMPLETED, status.getState());
+        assertEquals(3, status.getImported());
+        assertEquals(3, todoRepository.findByCollaboratorName("grace").size());
+    }
+
+    @Test
+    void anUploadThatFailsWhileSpoolingLeavesNoFileBehind() throws Exception {
+        Set<Path> before = spoolFiles();
+        InputStream failing = new InputStream() {
+            private int served;
+
+            @Override
+            public int read() {
+                if (served++ < 64) {
+                    return 'x';
+                }
+                throw new IllegalStateException("connection reset");
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+            () -> importService.startImport(TodoImportService.Format.CSV, failing, StandardCharsets.UTF_8));
+
+        Set<Path> left = spoolFiles();
+        left.removeAll(before);
+        assertEquals(Collections.emptySet(), left);
+    }
+
+    private static Set<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("todo-import-"))
+                .collect(Collectors.toSet());
+        }
+    }
+
+    private static boolean finished(TodoImportStatus status) {
+        return status.getState() == TodoImportStatus.State.COMPLETED ||
+               status.getState() == TodoImportStatus.State.FAILED;
+    }
+
+    private static List<Long> rows(List<RowError> errors) {
+        return errors.stream().map(RowError::getRow).collect(Collectors.toList());
+    }
+}
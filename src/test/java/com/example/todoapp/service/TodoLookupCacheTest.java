@@ -0,0 +1,50 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.entity.Todo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:lookupcachedb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TodoLookupCacheTest {
+
+    @Autowired
+    private TodoLookupCache lookupCache;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Test
+    void entriesAreSharedUntilAWriteMovesTheVersion() {
+        Todo todo = todoService.createTodo(new Todo("Cached"));
+
+        assertSame(lookupCache.find(todo.getId()), lookupCache.find(todo.getId()));
+
+        Todo details = new Todo("Renamed");
+        todoService.updateTodo(todo.getId(), details);
+
+        assertEquals("Renamed", lookupCache.find(todo.getId()).getDescription());
+    }
+
+    @Test
+    void callersGetTheirOwnCopies() {
+        Todo todo = todoService.createTodo(new Todo("Copied"));
+
+        Todo first = todoService.getTodoById(todo.getId()).get();
+        first.setDescription("Changed locally");
+
+        Todo second = todoService.getTodoById(todo.getId()).get();
+        assertNotSame(first, second);
+        assertEquals("Copied", second.getDescription());
+    }
+}
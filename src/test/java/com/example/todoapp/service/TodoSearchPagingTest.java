@@ -0,0 +1,97 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.CursorPageResponse;
+import com.example.todoapp.dto.TodoCreateRequest;
+import com.example.todoapp.entity.Todo;
+import com.example.todoapp.search.TodoSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:searchpagingdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.search.max-results=2"
+})
+class TodoSearchPagingTest {
+
+    @Autowired
+    private TodoServiceModern todoService;
+
+    @Autowired
+    private TodoSearchIndex searchIndex;
+
+    @BeforeEach
+    void waitForTheIndex() throws InterruptedException {
+        for (int i = 0; i < 100 && !searchIndex.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(searchIndex.isReady());
+    }
+
+    @Test
+    void relevancePagesCoverEveryMatch() {
+        Todo pending = onePendingThreeDone("Alpha");
+
+        Page<Todo> second = todoService.getAllTodos("alpha", null, PageRequest.of(1, 3));
+
+        assertEquals(4, second.getTotalElements());
+        assertEquals(1, second.getContent().size());
+        assertEquals(pending.getId(), second.getContent().get(0).getId());
+    }
+
+    @Test
+    void filterRunsBeforeTheSortedSearchCap() {
+        Todo pending = onePendingThreeDone("Gamma");
+
+        Page<Todo> page = todoService.getAllTodos("gamma", "pending", PageRequest.of(0, 10, Sort.by("createdAt")));
+
+        assertEquals(1, page.getTotalElements());
+        assertEquals(pending.getId(), page.getContent().get(0).getId());
+    }
+
+    @Test
+    void cursorPagesWalkEveryMatch() {
+        onePendingThreeDone("Delta");
+
+        List<Long> seen = new ArrayList<>();
+        CursorPageResponse<Todo> page = todoService.getTodosAfter("delta", null, null, 3, true);
+        page.getContent().forEach(todo -> seen.add(todo.getId()));
+        assertEquals(4L, page.getTotalElements());
+        assertTrue(page.isHasNext());
+
+        page = todoService.getTodosAfter("delta", null, page.getNextCursor(), 3, false);
+        page.getContent().forEach(todo -> seen.add(todo.getId()));
+        assertFalse(page.isHasNext());
+
+        assertEquals(4, seen.size());
+        assertEquals(4, seen.stream().distinct().count());
+    }
+
+    // Equal scores rank newer ids first, so the pending todo is the worst match
+    private Todo onePendingThreeDone(String word) {
+        Todo pending = create(word + " pending");
+        for (int i = 0; i < 3; i++) {
+            todoService.toggleTodoCompletion(create(word + " done " + i).getId());
+        }
+        return pending;
+    }
+
+    private Todo create(String description) {
+        return todoService.createTodo(new TodoCreateRequest(description, null, null, null, null, null));
+    }
+}
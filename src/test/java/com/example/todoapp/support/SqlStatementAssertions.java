@@ -0,0 +1,47 @@
+package com.example.todoapp.support;
+
+import com.example.todoapp.metrics.SqlRequestStats;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers over the JDBC work a request did, so a query regression
+ * fails the build, e.g.
+ * {@code mockMvc.perform(asyncDispatch(result)).andExpect(statementsAtMost(1))}.
+ * For the CompletableFuture endpoints, match on the async dispatch.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static ResultMatcher statementsAtMost(long max) {
+        return result -> {
+            SqlRequestStats stats = stats(result);
+            assertTrue(stats.getStatements() <= max,
+                () -> describe(result) + " issued " + stats.getStatements() + " SQL statements, at most "
+                    + max + " expected: " + stats.getExecutions());
+        };
+    }
+
+    public static ResultMatcher noRepeatedStatements() {
+        return result -> {
+            SqlRequestStats stats = stats(result);
+            stats.getExecutions().forEach((sql, count) -> assertTrue(count == 1,
+                () -> describe(result) + " ran the same statement " + count + " times: " + sql));
+        };
+    }
+
+    private static SqlRequestStats stats(MvcResult result) {
+        SqlRequestStats stats = (SqlRequestStats) result.getRequest().getAttribute(SqlRequestStats.ATTRIBUTE);
+        assertNotNull(stats, "No SQL stats on the request; is SqlRequestStatsFilter registered with MockMvc?");
+        return stats;
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}